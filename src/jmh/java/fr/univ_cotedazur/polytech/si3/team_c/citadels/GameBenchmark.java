@@ -0,0 +1,60 @@
+package fr.univ_cotedazur.polytech.si3.team_c.citadels;
+
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.players.*;
+import org.openjdk.jmh.annotations.*;
+
+import javax.naming.LimitExceededException;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the number of complete games played per second, by number of players and by bots
+ * Each operation is a whole game, so the allocations per game are given by the gc profiler:
+ * java -jar target/benchmarks.jar GameBenchmark -prof gc (gc.alloc.rate.norm, in bytes per game)
+ *
+ * @author Team C
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Thread)
+public class GameBenchmark {
+    @Param({"3", "4", "5", "6", "7", "8"})
+    public int players;
+
+    /**
+     * The bot playing every seat, or "Mixed" for one bot of each kind in turn
+     */
+    @Param({"Mixed", "Bot", "RichardBot", "FearFulBot", "DiscreetBot", "AgressiveBot", "RandomBot"})
+    public String bots;
+
+    private SplittableRandom seeds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // The same sequence of games is played by every fork
+        seeds = new SplittableRandom(42);
+    }
+
+    private Player[] createPlayers() {
+        Player[] seats = new Player[players];
+        for (int seat = 0; seat < players; seat++) {
+            String bot = bots.equals("Mixed") ? Bots.KINDS.get(seat % Bots.KINDS.size()) : bots;
+            seats[seat] = Bots.create(bot, bot + seat);
+        }
+        return seats;
+    }
+
+    @Benchmark
+    public Game playGame() {
+        Game game = new Game(seeds.nextLong(), players, createPlayers());
+        try {
+            game.start();
+        } catch (LimitExceededException e) {
+            // A stuck game is still a played game
+        }
+        return game;
+    }
+}
@@ -0,0 +1,89 @@
+package fr.univ_cotedazur.polytech.si3.team_c.citadels;
+
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.players.*;
+import org.openjdk.jmh.annotations.*;
+
+import javax.naming.LimitExceededException;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Formatter;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+import java.util.logging.SimpleFormatter;
+
+/**
+ * Measures what the narration of the games costs, by playing the same games headless (INFO, the level of the tournaments)
+ * and narrated (FINE, the level of the demo), the narration being formatted as on the console then thrown away
+ * A headless game must not build any message: with -prof gc, its bytes per game (gc.alloc.rate.norm) are only the ones
+ * of the game, and -prof jfr shows no MessageFormat nor StringBuilder allocated by the game
+ *
+ * @author Team C
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Thread)
+public class GameLogBenchmark {
+    private static final int PLAYERS = 4;
+
+    @Param({"INFO", "FINE"})
+    public String level;
+
+    private final Logger logger = Logger.getGlobal();
+    private Handler handler;
+    private java.util.logging.Level previousLevel;
+    private boolean previousUseParentHandlers;
+    private SplittableRandom seeds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Both levels play the same sequence of games
+        seeds = new SplittableRandom(42);
+        previousLevel = logger.getLevel();
+        previousUseParentHandlers = logger.getUseParentHandlers();
+        handler = new Handler() {
+            private final Formatter formatter = new SimpleFormatter();
+
+            @Override
+            public void publish(LogRecord logRecord) {
+                if (isLoggable(logRecord)) formatter.format(logRecord);
+            }
+
+            @Override
+            public void flush() {
+                // Nothing is written
+            }
+
+            @Override
+            public void close() {
+                // Nothing to release
+            }
+        };
+        handler.setLevel(java.util.logging.Level.ALL);
+        logger.addHandler(handler);
+        logger.setUseParentHandlers(false);
+        logger.setLevel(java.util.logging.Level.parse(level));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        logger.removeHandler(handler);
+        logger.setUseParentHandlers(previousUseParentHandlers);
+        logger.setLevel(previousLevel);
+    }
+
+    @Benchmark
+    public Game playGame() {
+        Game game = new Game(seeds.nextLong(), PLAYERS,
+                new Bot("Bot"), new RichardBot("Richard Bot"), new FearFulBot("FearFul Bot"), new RandomBot("Random Bot"));
+        try {
+            game.start();
+        } catch (LimitExceededException e) {
+            // A stuck game is still a played game
+        }
+        return game;
+    }
+}
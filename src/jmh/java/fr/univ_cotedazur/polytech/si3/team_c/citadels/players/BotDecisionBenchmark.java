@@ -0,0 +1,111 @@
+package fr.univ_cotedazur.polytech.si3.team_c.citadels.players;
+
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.Character;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.AbstractMap.SimpleEntry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the decisions of the bots which take most of the time of the games, on positions reached by real games
+ * The time is given in ns per decision, and the allocations in bytes per decision with -prof gc (gc.alloc.rate.norm)
+ *
+ * @author Team C
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class BotDecisionBenchmark {
+    /**
+     * MidGame: after the third turn, EndGame: when a player is two districts away from the end of the game
+     */
+    @Param({"MidGame", "EndGame"})
+    public String phase;
+
+    private Bot bot;
+    private RichardBot richardBot;
+    private CharacterManager characterManager;
+    private List<Character> characters;
+    private List<Character> charactersToKill;
+    private List<District> districts;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        for (long seed = 42; ; seed++) if (reachPhase(seed)) break;
+        // The characters are chosen as if the bots had the crown
+        characterManager = new CharacterManager(bot.getPlayers().size(), new SplittableRandom(42));
+        characters = List.copyOf(characterManager.possibleCharactersToChoose());
+        for (Bot player : List.of(bot, richardBot)) {
+            player.pickCharacter(characterManager);
+            player.setPossibleCharacters(List.of(), characterManager);
+        }
+        charactersToKill = new ArrayList<>(characters);
+        charactersToKill.removeIf(character -> character.getAction().contains(Action.KILL));
+        // The cards in hand and the cards drawn from the deck
+        districts = new ArrayList<>(bot.getHandDistricts());
+        districts.addAll(new Deck(new SplittableRandom(42)).draw(4));
+    }
+
+    /**
+     * Plays a game until the phase of the benchmark
+     *
+     * @return false if the game ended before the phase
+     */
+    private boolean reachPhase(long seed) {
+        bot = new Bot("Bot");
+        richardBot = new RichardBot("Richard Bot");
+        Game game = new Game(seed, 5, bot, richardBot, new FearFulBot("FearFul Bot"), new AgressiveBot("Agressive Bot"), new DiscreetBot("Discreet Bot"));
+        game.prepare();
+        while (!reached(game)) if (game.playTurn()) return false;
+        return true;
+    }
+
+    private boolean reached(Game game) {
+        if (phase.equals("MidGame")) return game.getCurrentTurn() >= 3;
+        return game.getPlayerList().stream().anyMatch(player -> player.getNumberOfBuiltDistricts() >= game.numberOfDistrictsToEnd() - 2);
+    }
+
+    @Benchmark
+    public double characterProfitability() {
+        double profitability = 0;
+        for (Character character : characters) profitability += bot.characterProfitability(character, characterManager);
+        return profitability;
+    }
+
+    @Benchmark
+    public double districtProfitability() {
+        double profitability = 0;
+        for (District district : districts) profitability += bot.districtProfitability(district);
+        return profitability;
+    }
+
+    @Benchmark
+    public SimpleEntry<IPlayer, District> destroyDistrict() {
+        return bot.destroyDistrict(bot.getPlayers());
+    }
+
+    @Benchmark
+    public Character chooseCharacterToKill() {
+        return bot.chooseCharacterToKill(charactersToKill);
+    }
+
+    @Benchmark
+    public double richardCharacterProfitability() {
+        double profitability = 0;
+        for (Character character : characters)
+            profitability += richardBot.characterProfitability(character, characterManager);
+        return profitability;
+    }
+
+    @Benchmark
+    public Character richardChooseCharacterToKill() {
+        return richardBot.chooseCharacterToKill(charactersToKill);
+    }
+}
@@ -0,0 +1,87 @@
+package fr.univ_cotedazur.polytech.si3.team_c.citadels.players;
+
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.Colors;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.District;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.districts.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Measures the five-colour bonus of full cities, computed on colour masks by {@link Player#allColorsInDistricts(int)},
+ * against the former backtracking on sets of colours (kept here as the reference)
+ * The time is given in ns per city, and the allocations in bytes per city with -prof gc (gc.alloc.rate.norm)
+ *
+ * @author Team C
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class ColorBonusBenchmark {
+    private static final int LAST_TURN = 8;
+
+    /**
+     * The eight built districts: all the colours, a missing colour, the Haunted City taking the missing colour,
+     * or the Haunted City built in the last turn (which can't take it)
+     */
+    @Param({"FiveColors", "FourColors", "HauntedCity", "HauntedCityLastTurn"})
+    public String city;
+
+    private Bot player;
+    private int lastTurn;
+    private int[] turnOfBuild;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<District> districts = switch (city) {
+            case "FiveColors" -> List.of(new Temple(), new Manor(), new Market(), new Prison(), new TheKeep(), new Church(), new Castle(), new Tavern());
+            case "FourColors" -> List.of(new Temple(), new Church(), new Monastery(), new Manor(), new Castle(), new Market(), new Tavern(), new Prison());
+            default -> List.of(new Temple(), new Manor(), new Market(), new TheKeep(), new Church(), new Castle(), new Tavern(), new HauntedCity());
+        };
+        player = new Bot("Bot", 100, districts);
+        turnOfBuild = new int[districts.size()];
+        for (int i = 0; i < districts.size(); i++) {
+            turnOfBuild[i] = i + 1;
+            player.buildDistrict(districts.get(i), turnOfBuild[i]);
+        }
+        lastTurn = city.equals("HauntedCityLastTurn") ? LAST_TURN : LAST_TURN + 1;
+        if (player.allColorsInDistricts(lastTurn) != backtracking(player.getBuiltDistricts(), Collections.emptySet(), 0))
+            throw new IllegalStateException("The two computations of the bonus disagree on " + city);
+    }
+
+    @Benchmark
+    public boolean masks() {
+        return player.allColorsInDistricts(lastTurn);
+    }
+
+    @Benchmark
+    public boolean backtracking() {
+        return backtracking(player.getBuiltDistricts(), Collections.emptySet(), 0);
+    }
+
+    @Benchmark
+    public int score() {
+        return player.getScore(lastTurn);
+    }
+
+    /**
+     * The former computation of the bonus, trying each colour of each district with a new set of colours per branch
+     */
+    private boolean backtracking(List<District> builtDistricts, Set<Colors> selectedColors, int index) {
+        if (selectedColors.containsAll(Arrays.stream(Colors.values()).filter(Predicate.not(Colors.NONE::equals)).toList()))
+            return true;
+        if (index >= builtDistricts.size()) return false;
+        District district = builtDistricts.get(index);
+        List<Colors> colors = district.bonusColors(turnOfBuild[index] == lastTurn);
+        return colors.stream().anyMatch(color -> {
+            var colorsToTry = new HashSet<>(selectedColors);
+            colorsToTry.add(color);
+            return backtracking(builtDistricts, colorsToTry, index + 1);
+        });
+    }
+}
@@ -1,5 +1,9 @@
 package fr.univ_cotedazur.polytech.si3.team_c.citadels;
 
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.events.Decision;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.events.GameEvent.CoinsMoved;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.events.GameEvent.DistrictBuilt;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.events.GameEvent.DistrictDestroyed;
 import fr.univ_cotedazur.polytech.si3.team_c.citadels.players.Player;
 
 import java.text.MessageFormat;
@@ -7,15 +11,27 @@ import java.util.AbstractMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
+/**
+ * An action that a player can do during his turn
+ * Doing an action gives the message describing what happened, which is only formatted when it is logged
+ * An action needing a choice of the player is split in two: it asks for the choice, and ends once the player has made it,
+ * so that the game can wait for the answer without blocking its thread
+ *
+ * @author Team C
+ */
 public enum Action {
     /**
      * The player receives a certain amount of coins
      */
     INCOME("claim his income") {
         @Override
-        public String doAction(Game game, Player player) {
-            return MessageFormat.format("{0} got {1} coins", player.getName(), player.gainIncome());
+        public Supplier<String> doAction(Game game, Player player) {
+            int income = player.gainIncome();
+            publishCoinsMoved(game, player, income, this);
+            return () -> MessageFormat.format("{0} got {1} coins", player.getName(), income);
         }
     },
     /**
@@ -23,8 +39,10 @@ public enum Action {
      */
     SPECIAL_INCOME("claim his special income") {
         @Override
-        public String doAction(Game game, Player player) {
-            return MessageFormat.format("{0} got {1} coins", player.getName(), player.gainSpecialIncome());
+        public Supplier<String> doAction(Game game, Player player) {
+            int income = player.gainSpecialIncome();
+            publishCoinsMoved(game, player, income, this);
+            return () -> MessageFormat.format("{0} got {1} coins", player.getName(), income);
         }
     },
     /**
@@ -32,17 +50,29 @@ public enum Action {
      */
     DRAW("draw districts", INCOME) {
         @Override
-        public String doAction(Game game, Player player) {
+        Choice<?> request(Game game, Player player) {
             var drawnCard = game.getDeck().draw(player.numberOfDistrictsToDraw());
-            List<District> districtsToKeep = player.pickDistrictsFromDeck(drawnCard);
-            game.getDeck().addAll(drawnCard.stream().filter(
-                    district -> {
-                        for (District card : districtsToKeep) {
-                            if (card == district) return false;
-                        }
-                        return true;
-                    }).toList()); // We add back to the deck the districts that the player doesn't want to keep
-            return MessageFormat.format("{0} kept {1}", player.getName(), districtsToKeep);
+            return new Choice<List<District>>(player, Decision.KEEP_DISTRICTS) {
+                @Override
+                public List<District> get() {
+                    return player.pickDistrictsFromDeck(drawnCard);
+                }
+
+                @Override
+                CompletableFuture<List<District>> request() {
+                    return player.requestDistrictsFromDeck(drawnCard, player.numberOfDistrictsToKeep());
+                }
+
+                @Override
+                Supplier<String> apply(List<District> districtsToKeep) {
+                    for (District district : drawnCard) { // We add back to the deck the districts that the player doesn't want to keep
+                        boolean kept = false;
+                        for (District card : districtsToKeep) kept |= card == district;
+                        if (!kept) game.getDeck().addLast(district);
+                    }
+                    return () -> MessageFormat.format("{0} kept {1}", player.getName(), districtsToKeep);
+                }
+            };
         }
     },
     /**
@@ -50,10 +80,31 @@ public enum Action {
      */
     BUILD("build district(s)") {
         @Override
-        public String doAction(Game game, Player player) {
-            List<District> districtToBuild = player.pickDistrictsToBuild(game.getCurrentTurn());
-            districtToBuild.forEach(district -> district.getEventAction().forEach(a -> game.registerPlayerForEventAction(player, a)));
-            return MessageFormat.format("{0} built {1}", player.getName(), districtToBuild);
+        Choice<?> request(Game game, Player player) {
+            int coins = player.getCoins();
+            return new Choice<List<District>>(player, Decision.BUILD_DISTRICTS) {
+                @Override
+                public List<District> get() {
+                    return player.pickDistrictsToBuild(game.getCurrentTurn());
+                }
+
+                @Override
+                CompletableFuture<List<District>> request() {
+                    return player.requestDistrictsToBuild(game.getCurrentTurn());
+                }
+
+                @Override
+                Supplier<String> apply(List<District> districtToBuild) {
+                    districtToBuild.forEach(district -> district.getEventAction().forEach(a -> game.registerPlayerForEventAction(player, a)));
+                    if (game.getEvents().hasListeners()) {
+                        for (District district : districtToBuild)
+                            if (player.hasBuiltDistrict(district))
+                                game.getEvents().publish(new DistrictBuilt(player, district, game.getCurrentTurn()));
+                    }
+                    publishCoinsMoved(game, player, player.getCoins() - coins, BUILD);
+                    return () -> MessageFormat.format("{0} built {1}", player.getName(), districtToBuild);
+                }
+            };
         }
     },
     /**
@@ -61,12 +112,27 @@ public enum Action {
      */
     DISCARD("discard a card in order to receive a coin") {
         @Override
-        public String doAction(Game game, Player player) {
-            District card = player.cardToDiscard();
-            player.removeFromHand(List.of(card)); // If no card chose the player would not be able to do this action
-            game.getDeck().addLast(card);
-            player.gainCoins(1);
-            return MessageFormat.format("{0} discarded {1} in order to received one coin", player.getName(), card);
+        Choice<?> request(Game game, Player player) {
+            return new Choice<District>(player, Decision.DISCARD) {
+                @Override
+                public District get() {
+                    return player.cardToDiscard();
+                }
+
+                @Override
+                CompletableFuture<District> request() {
+                    return player.requestCardToDiscard();
+                }
+
+                @Override
+                Supplier<String> apply(District card) {
+                    player.removeFromHand(List.of(card)); // If no card chose the player would not be able to do this action
+                    game.getDeck().addLast(card);
+                    player.gainCoins(1);
+                    publishCoinsMoved(game, player, 1, DISCARD);
+                    return () -> MessageFormat.format("{0} discarded {1} in order to received one coin", player.getName(), card);
+                }
+            };
         }
     },
     /**
@@ -74,11 +140,11 @@ public enum Action {
      */
     TAKE_THREE("pay 3 coins in order to draw 3 cards") {
         @Override
-        public String doAction(Game game, Player player) {
+        public Supplier<String> doAction(Game game, Player player) {
             List<District> drawnCards = game.getDeck().draw(3);
-            player.pay(3);
+            if (player.pay(3)) publishCoinsMoved(game, player, -3, this);
             drawnCards.forEach(player::addDistrictToHand);
-            return MessageFormat.format("{0} payed 3 coins in order to received: {1}", player.getName(), drawnCards);
+            return () -> MessageFormat.format("{0} payed 3 coins in order to received: {1}", player.getName(), drawnCards);
         }
     },
     /**
@@ -86,11 +152,25 @@ public enum Action {
      */
     STEAL("steal a character") {
         @Override
-        public String doAction(Game game, Player player) {
+        Choice<?> request(Game game, Player player) {
             if (game.getCharactersToInteractWith().isEmpty()) return null; // Useful for tests
-            Character characterToRob = player.chooseCharacterToRob(game.getCharactersToInteractWith());
-            game.performActionOnCharacter(characterToRob, player, SufferedActions.STOLEN);
-            return MessageFormat.format("{0} tries to steal the {1}", player.getName(), characterToRob);
+            return new Choice<Character>(player, Decision.ROB) {
+                @Override
+                public Character get() {
+                    return player.chooseCharacterToRob(game.getCharactersToInteractWith());
+                }
+
+                @Override
+                CompletableFuture<Character> request() {
+                    return player.requestCharacterToRob(game.getCharactersToInteractWith());
+                }
+
+                @Override
+                Supplier<String> apply(Character characterToRob) {
+                    game.performActionOnCharacter(characterToRob, player, SufferedActions.STOLEN);
+                    return () -> MessageFormat.format("{0} tries to steal the {1}", player.getName(), characterToRob);
+                }
+            };
         }
     },
     /**
@@ -98,12 +178,26 @@ public enum Action {
      */
     KILL("kill a character") {
         @Override
-        public String doAction(Game game, Player player) {
+        Choice<?> request(Game game, Player player) {
             if (game.getCharactersToInteractWith().isEmpty()) return null; // Useful for tests
-            Character characterToKill = player.chooseCharacterToKill(game.getCharactersToInteractWith());
-            game.performActionOnCharacter(characterToKill, player, SufferedActions.KILLED);
-            game.getCharactersToInteractWith().remove(characterToKill);
-            return MessageFormat.format("{0} kills the {1}", player.getName(), characterToKill);
+            return new Choice<Character>(player, Decision.KILL) {
+                @Override
+                public Character get() {
+                    return player.chooseCharacterToKill(game.getCharactersToInteractWith());
+                }
+
+                @Override
+                CompletableFuture<Character> request() {
+                    return player.requestCharacterToKill(game.getCharactersToInteractWith());
+                }
+
+                @Override
+                Supplier<String> apply(Character characterToKill) {
+                    game.performActionOnCharacter(characterToKill, player, SufferedActions.KILLED);
+                    game.getCharactersToInteractWith().remove(characterToKill);
+                    return () -> MessageFormat.format("{0} kills the {1}", player.getName(), characterToKill);
+                }
+            };
         }
     },
     /**
@@ -111,14 +205,28 @@ public enum Action {
      */
     EXCHANGE_DECK("exchange some of his cards with the deck") {
         @Override
-        public String doAction(Game game, Player player) {
-            List<District> cardsToExchange = player.chooseCardsToExchangeWithDeck();
-            assert (!cardsToExchange.isEmpty());
-            game.getDeck().addAll(cardsToExchange);
-            player.removeFromHand(cardsToExchange);
-            List<District> cards = game.getDeck().draw(cardsToExchange.size());
-            cards.forEach(player::addDistrictToHand);
-            return MessageFormat.format("{0} exchanges some cards {1} with the deck, he got {2}", player.getName(), cardsToExchange, cards);
+        Choice<?> request(Game game, Player player) {
+            return new Choice<List<District>>(player, Decision.EXCHANGE_WITH_DECK) {
+                @Override
+                public List<District> get() {
+                    return player.chooseCardsToExchangeWithDeck();
+                }
+
+                @Override
+                CompletableFuture<List<District>> request() {
+                    return player.requestCardsToExchangeWithDeck();
+                }
+
+                @Override
+                Supplier<String> apply(List<District> cardsToExchange) {
+                    assert (!cardsToExchange.isEmpty());
+                    game.getDeck().addAll(cardsToExchange);
+                    player.removeFromHand(cardsToExchange);
+                    List<District> cards = game.getDeck().draw(cardsToExchange.size());
+                    cards.forEach(player::addDistrictToHand);
+                    return () -> MessageFormat.format("{0} exchanges some cards {1} with the deck, he got {2}", player.getName(), cardsToExchange, cards);
+                }
+            };
         }
     },
     /**
@@ -126,15 +234,30 @@ public enum Action {
      */
     EXCHANGE_PLAYER("exchange his hand with the hand of another player", EXCHANGE_DECK) {
         @Override
-        public String doAction(Game game, Player player) {
-            Player playerToExchangeCards = (Player) player.playerToExchangeCards(player.getPlayers());
-            List<District> hand1 = player.getHandDistricts();
-            List<District> handExchange = playerToExchangeCards.getHandDistricts();
-            player.removeFromHand(hand1);
-            playerToExchangeCards.removeFromHand(handExchange);
-            hand1.forEach(playerToExchangeCards::addDistrictToHand);
-            handExchange.forEach(player::addDistrictToHand);
-            return MessageFormat.format("{0} exchanges his cards {1} with {2}, he got {3}", player.getName(), hand1, playerToExchangeCards.getName(), handExchange);
+        Choice<?> request(Game game, Player player) {
+            return new Choice<IPlayer>(player, Decision.EXCHANGE_WITH_PLAYER) {
+                @Override
+                public IPlayer get() {
+                    return player.playerToExchangeCards(player.getPlayers());
+                }
+
+                @Override
+                CompletableFuture<IPlayer> request() {
+                    return player.requestPlayerToExchangeCards(player.getPlayers());
+                }
+
+                @Override
+                Supplier<String> apply(IPlayer chosenPlayer) {
+                    Player playerToExchangeCards = (Player) chosenPlayer;
+                    List<District> hand1 = player.getHandDistricts();
+                    List<District> handExchange = playerToExchangeCards.getHandDistricts();
+                    player.removeFromHand(hand1);
+                    playerToExchangeCards.removeFromHand(handExchange);
+                    hand1.forEach(playerToExchangeCards::addDistrictToHand);
+                    handExchange.forEach(player::addDistrictToHand);
+                    return () -> MessageFormat.format("{0} exchanges his cards {1} with {2}, he got {3}", player.getName(), hand1, playerToExchangeCards.getName(), handExchange);
+                }
+            };
         }
     },
     /**
@@ -142,18 +265,37 @@ public enum Action {
      */
     DESTROY("destroy a district") {
         @Override
-        public String doAction(Game game, Player player) {
-            AbstractMap.SimpleEntry<IPlayer, District> districtToDestroy = player.destroyDistrict(game.getIPlayerList());
-            ((Player) districtToDestroy.getKey()).removeDistrictFromDistrictBuilt(districtToDestroy.getValue());
-            player.pay(districtToDestroy.getValue().getCost() - 1);
-
-            List<Action> actions = districtToDestroy.getValue().getEventAction();
-            actions.forEach(action -> game.unregisterPlayerForEventAction(player, action));
-            if (!game.callEventAction(Action.RECOVER_DESTROYED_DISTRICT, player, districtToDestroy.getValue()))
-                game.getDeck().add(districtToDestroy.getValue());
-
-            return MessageFormat.format("{0} destroys the {1} of {2}\n{0} has now {3} coins",
-                    player.getName(), districtToDestroy.getValue(), districtToDestroy.getKey().getName(), player.getCoins());
+        Choice<?> request(Game game, Player player) {
+            return new Choice<AbstractMap.SimpleEntry<IPlayer, District>>(player, Decision.DESTROY) {
+                @Override
+                public AbstractMap.SimpleEntry<IPlayer, District> get() {
+                    return player.destroyDistrict(game.getIPlayerList());
+                }
+
+                @Override
+                CompletableFuture<AbstractMap.SimpleEntry<IPlayer, District>> request() {
+                    return player.requestDistrictToDestroy(game.getIPlayerList());
+                }
+
+                @Override
+                Supplier<String> apply(AbstractMap.SimpleEntry<IPlayer, District> districtToDestroy) {
+                    ((Player) districtToDestroy.getKey()).removeDistrictFromDistrictBuilt(districtToDestroy.getValue());
+                    int price = districtToDestroy.getValue().getCost() - 1;
+                    if (player.pay(price)) publishCoinsMoved(game, player, -price, DESTROY);
+                    if (game.getEvents().hasListeners())
+                        game.getEvents().publish(new DistrictDestroyed(player, districtToDestroy.getKey(), districtToDestroy.getValue()));
+
+                    List<Action> actions = districtToDestroy.getValue().getEventAction();
+                    actions.forEach(action -> game.unregisterPlayerForEventAction(player, action));
+                    // If a player can recover the district, it only goes back to the deck once he has declined
+                    if (!game.callEventAction(Action.RECOVER_DESTROYED_DISTRICT, player, districtToDestroy.getValue()))
+                        game.getDeck().add(districtToDestroy.getValue());
+
+                    int coins = player.getCoins();
+                    return () -> MessageFormat.format("{0} destroys the {1} of {2}\n{0} has now {3} coins",
+                            player.getName(), districtToDestroy.getValue(), districtToDestroy.getKey().getName(), coins);
+                }
+            };
         }
     },
     /**
@@ -161,10 +303,10 @@ public enum Action {
      */
     BEGIN_DRAW("draws") {
         @Override
-        public String doAction(Game game, Player player) {
+        public Supplier<String> doAction(Game game, Player player) {
             var drawnCards = game.getDeck().draw(2);
             drawnCards.forEach(player::addDistrictToHand);
-            return MessageFormat.format("{0} drew 2 extra districts {1} because he was the {2}", player.getName(), drawnCards, player.getCharacter().orElseThrow());
+            return () -> MessageFormat.format("{0} drew 2 extra districts {1} because he was the {2}", player.getName(), drawnCards, player.getCharacter().orElseThrow());
         }
     },
     /**
@@ -172,25 +314,42 @@ public enum Action {
      */
     STARTUP_INCOME {
         @Override
-        public String doAction(Game game, Player player) {
+        public Supplier<String> doAction(Game game, Player player) {
             player.gainCoins(1);
-            return MessageFormat.format("{0} earned a coin because he was the {1}", player.getName(), player.getCharacter().orElseThrow());
+            publishCoinsMoved(game, player, 1, this);
+            return () -> MessageFormat.format("{0} earned a coin because he was the {1}", player.getName(), player.getCharacter().orElseThrow());
         }
     },
     /**
-     * The player pays one coin to get a district that has been destroyed during the turn
+     * The player pays one coin to get a district that has been destroyed during the turn, which otherwise goes back to the deck
      */
     RECOVER_DESTROYED_DISTRICT {
         @Override
-        public <T> String doEventAction(Game game, Player caller, Player eventPlayer, T param) {
+        <T> Choice<?> requestEventAction(Game game, Player caller, Player eventPlayer, T param) {
             if (!(param instanceof District districtToDestroy)) return null;
-            if (!eventPlayer.equals(caller)
-                    && eventPlayer.wantsToTakeADestroyedDistrict(districtToDestroy)) {
-                eventPlayer.pay(1);
-                eventPlayer.addDistrictToHand(districtToDestroy);
-                return MessageFormat.format("{0} payed one coin to recover {1}", eventPlayer.getName(), districtToDestroy);
-            }
-            return null;
+            if (eventPlayer.equals(caller)) return null;
+            return new Choice<Boolean>(eventPlayer, Decision.RECOVER) {
+                @Override
+                public Boolean get() {
+                    return eventPlayer.wantsToTakeADestroyedDistrict(districtToDestroy);
+                }
+
+                @Override
+                CompletableFuture<Boolean> request() {
+                    return eventPlayer.requestToTakeADestroyedDistrict(districtToDestroy);
+                }
+
+                @Override
+                Supplier<String> apply(Boolean recover) {
+                    if (!recover) {
+                        game.getDeck().add(districtToDestroy);
+                        return null;
+                    }
+                    if (eventPlayer.pay(1)) publishCoinsMoved(game, eventPlayer, -1, RECOVER_DESTROYED_DISTRICT);
+                    eventPlayer.addDistrictToHand(districtToDestroy);
+                    return () -> MessageFormat.format("{0} payed one coin to recover {1}", eventPlayer.getName(), districtToDestroy);
+                }
+            };
         }
     },
     /**
@@ -198,9 +357,9 @@ public enum Action {
      */
     GET_CROWN {
         @Override
-        public String doAction(Game game, Player player) {
+        public Supplier<String> doAction(Game game, Player player) {
             game.setCrown(player);
-            return MessageFormat.format("{0} got the crown because he was the {1}", player.getName(), player.getCharacter().orElseThrow());
+            return () -> MessageFormat.format("{0} got the crown because he was the {1}", player.getName(), player.getCharacter().orElseThrow());
         }
     },
     /**
@@ -222,11 +381,42 @@ public enum Action {
         for (Action incompatibleAction : incompatibleActions) incompatibleAction.incompatibleActions.add(this);
     }
 
-    public String doAction(Game game, Player player) {
+    /**
+     * Does the action at once, waiting for the choice of the player if it needs one
+     *
+     * @return the message describing what happened (null if nothing did)
+     */
+    public Supplier<String> doAction(Game game, Player player) {
+        Choice<?> choice = request(game, player);
+        return choice == null ? null : game.choose(choice);
+    }
+
+    /**
+     * Starts the action up to the choice it needs from the player, the rest of the action being done by the choice
+     * once the player has answered
+     *
+     * @return the choice to ask the player for, or null if the action doesn't need any (it is then done by {@link #doAction})
+     */
+    Choice<?> request(Game game, Player player) {
         return null;
     }
 
-    public <T> String doEventAction(Game game, Player caller, Player eventPlayer, T param) {
+    /**
+     * Publishes the coins won (or paid, if the delta is negative) by a player doing an action
+     */
+    private static void publishCoinsMoved(Game game, Player player, int delta, Action reason) {
+        if (delta != 0 && game.getEvents().hasListeners()) game.getEvents().publish(new CoinsMoved(player, delta, reason));
+    }
+
+    /**
+     * Starts the event action triggered by the action of another player, up to the choice of the player registered for it
+     *
+     * @param caller      the player whose action triggers the event action
+     * @param eventPlayer the player registered for the event action
+     * @param param       what the action of the caller gives to the event action
+     * @return the choice to ask the registered player for, doing the event action once he has answered (null if he can't do it)
+     */
+    <T> Choice<?> requestEventAction(Game game, Player caller, Player eventPlayer, T param) {
         return null;
     }
 
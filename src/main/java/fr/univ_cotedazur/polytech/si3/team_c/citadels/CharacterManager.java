@@ -5,21 +5,27 @@ import fr.univ_cotedazur.polytech.si3.team_c.citadels.players.Player;
 
 import java.util.*;
 import java.util.function.Predicate;
+import java.util.random.RandomGenerator;
 
 public class CharacterManager {
+    /**
+     * The characters are immutable, so every game shares the same instances
+     */
+    private static final List<Character> DEFAULT_CHARACTERS = List.of(new Assassin(), new Thief(), new Magician(),
+            new King(), new Bishop(), new Merchant(), new Architect(), new Warlord());
     private Map<Character, Player> characterPlayerMap;
     private List<Character> availableCharacters;
     private List<Character> visible;
     private List<Character> hidden;
     private final List<Character> characters;
-    private final Random random;
+    private final RandomGenerator random;
     private final int playerCount;
 
-    public CharacterManager(int playerCount, Random random) {
-        this(playerCount, random, defaultCharacterList());
+    public CharacterManager(int playerCount, RandomGenerator random) {
+        this(playerCount, random, DEFAULT_CHARACTERS);
     }
 
-    public CharacterManager(int playerCount, Random random, List<Character> characters) {
+    public CharacterManager(int playerCount, RandomGenerator random, List<Character> characters) {
         this.playerCount = playerCount;
         this.random = random;
         this.hidden = new ArrayList<>();
@@ -47,8 +53,7 @@ public class CharacterManager {
      * Gets the default list of characters
      */
     public static List<Character> defaultCharacterList() {
-        return new ArrayList<>(List.of(new Assassin(), new Thief(), new Magician(), new King(),
-                new Bishop(), new Merchant(), new Architect(), new Warlord()));
+        return new ArrayList<>(DEFAULT_CHARACTERS);
     }
 
     /**
@@ -159,6 +164,15 @@ public class CharacterManager {
     }
 
     public String toString() {
+        return discardDescription(hidden, visible);
+    }
+
+    /**
+     * @param hidden  the characters of the hidden discard
+     * @param visible the characters of the visible discard
+     * @return the description of the discards
+     */
+    public static String discardDescription(List<Character> hidden, List<Character> visible) {
         StringBuilder discardDisplay = new StringBuilder();
         if (!hidden.isEmpty()) {
             discardDisplay.append("The following characters have been placed in the hidden discard : ").append(hidden);
@@ -0,0 +1,64 @@
+package fr.univ_cotedazur.polytech.si3.team_c.citadels;
+
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.events.Decision;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.players.Player;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * A choice the game asks a player for, and what the game does with his answer
+ * The player is asked with {@link #get()} if he decides on the calling thread, without creating any future, and with
+ * {@link #request()} if he overrides a request of {@link Player} to answer later
+ *
+ * @param <T> the type of the answer
+ * @author Team C
+ */
+abstract class Choice<T> implements Supplier<T> {
+    private final Player player;
+    private final Decision decision;
+    private T answer;
+
+    Choice(Player player, Decision decision) {
+        this.player = player;
+        this.decision = decision;
+    }
+
+    Player getPlayer() {
+        return player;
+    }
+
+    Decision getDecision() {
+        return decision;
+    }
+
+    /**
+     * Asks the player for his answer, which he may give later
+     */
+    abstract CompletableFuture<T> request();
+
+    /**
+     * Does what the answer of the player leads to
+     *
+     * @param answer the answer of the player
+     * @return the message describing what happened (null if nothing did)
+     */
+    Supplier<String> apply(T answer) {
+        return null;
+    }
+
+    T getAnswer() {
+        return answer;
+    }
+
+    void setAnswer(T answer) {
+        this.answer = answer;
+    }
+
+    /**
+     * Does what the answer given to {@link #setAnswer(Object)} leads to
+     */
+    Supplier<String> apply() {
+        return apply(answer);
+    }
+}
@@ -3,12 +3,24 @@ package fr.univ_cotedazur.polytech.si3.team_c.citadels;
 public enum Colors {
     NONE("⚪\033[0;37m"), BLUE("🔵\033[0;36m"), YELLOW("🟡\033[0;33m"), GREEN("🟢\033[0;32m"), RED("🔴\033[0;31m"), PURPLE("🟣\033[0;35m");
 
+    /**
+     * Mask of the five colors giving the bonus when a player built all of them
+     */
+    public static final int ALL_COLORS_MASK = 0b11111;
+
     private final String representation;
 
     Colors(String emoji) {
         this.representation = emoji;
     }
 
+    /**
+     * @return the bit of the color in a mask of colors (the absence of color has no bit)
+     */
+    public int mask() {
+        return this == NONE ? 0 : 1 << (ordinal() - 1);
+    }
+
     @Override
     public String toString() {
         return representation;
@@ -1,65 +1,82 @@
 package fr.univ_cotedazur.polytech.si3.team_c.citadels;
 
-import fr.univ_cotedazur.polytech.si3.team_c.citadels.districts.*;
+import java.util.*;
+import java.util.random.RandomGenerator;
 
-import java.util.ArrayDeque;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-
-public class Deck extends ArrayDeque<District> {
+/**
+ * Deck of district cards, stored as the ids of the cards in a ring buffer
+ * The shuffle is lazy: the deck is split in three parts, the cards on the top whose place is decided,
+ * the cards still to be shuffled, and the cards put back at the bottom.
+ * A card still to be shuffled is only picked when it reaches the top, as a step of a Fisher-Yates shuffle would do.
+ *
+ * @author Team C
+ */
+public class Deck {
+    private static final int MIN_CAPACITY = 16;
+    private final RandomGenerator random;
+    private int[] ids;
+    private int head;
+    private int size;
+    private int decidedOnTop;
+    private int toShuffle;
+    /**
+     * Cards that aren't in the catalog (created by hand), their id follows the ids of the catalog
+     */
+    private List<District> foreignCards;
+    private Map<District, Integer> foreignIds;
 
     public Deck() {
-        this(getAllDistrict());
+        this(new SplittableRandom());
+    }
+
+    /**
+     * Creates a deck with all the district cards, shared with the other games through the catalog
+     *
+     * @param random the random generator used to shuffle the cards
+     */
+    public Deck(RandomGenerator random) {
+        this(DistrictCatalog.cards(), random);
     }
 
     public Deck(List<District> cards) {
-        cards = new ArrayList<>(cards);
-        Collections.shuffle(cards);
-        addAll(cards);
+        this(cards, new SplittableRandom());
+    }
+
+    /**
+     * @param cards  the cards of the deck
+     * @param random the random generator used to shuffle the cards
+     */
+    public Deck(List<District> cards, RandomGenerator random) {
+        this.random = random;
+        ids = new int[Math.max(MIN_CAPACITY, Integer.highestOneBit(cards.size()) << 1)];
+        for (District card : cards) ids[size++] = idOf(card);
+        toShuffle = size;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
     }
 
     /**
-     * Constructor of the class to create the Deck with all the district cards
+     * @return the card on the top of the deck, without removing it
+     * @throws NoSuchElementException if the deck is empty
      */
-    private static List<District> getAllDistrict() {
-        List<District> deck = new ArrayList<>();
-        for (int i = 0; i < 5; i++) {
-            if (i < 2) {
-                deck.add(new Cathedral());
-                deck.add(new Palace());
-                deck.add(new TownHall());
-                deck.add(new Fortress());
-                deck.add(new TheKeep());
-            }
-            if (i < 3) {
-                deck.add(new Monastery());
-                deck.add(new Temple());
-                deck.add(new TradingPost());
-                deck.add(new Docks());
-                deck.add(new Harbor());
-                deck.add(new WatchTower());
-                deck.add(new Prison());
-                deck.add(new Battlefield());
-            }
-            if (i < 4) {
-                deck.add(new Church());
-                deck.add(new Castle());
-                deck.add(new Market());
-            }
-            deck.add(new Manor());
-            deck.add(new Tavern());
+    public District getFirst() {
+        if (isEmpty()) throw new NoSuchElementException("The deck is empty");
+        if (decidedOnTop == 0 && toShuffle > 0) {
+            // The next card is randomly picked among the cards still to be shuffled
+            int picked = slot(random.nextInt(toShuffle));
+            int top = ids[head];
+            ids[head] = ids[picked];
+            ids[picked] = top;
+            decidedOnTop++;
+            toShuffle--;
         }
-        deck.add(new SchoolOfMagic());
-        deck.add(new HauntedCity());
-        deck.add(new Laboratory());
-        deck.add(new Smithy());
-        deck.add(new Observatory());
-        deck.add(new University());
-        deck.add(new Graveyard());
-        deck.add(new Library());
-        deck.add(new DragonGate());
-        return deck;
+        return cardOf(ids[head]);
     }
 
     /**
@@ -69,10 +86,78 @@ public class Deck extends ArrayDeque<District> {
      * @return the List of drawn cards
      */
     public List<District> draw(int cardToDraw) {
-        List<District> drawnCards = new ArrayList<>();
+        List<District> drawnCards = new ArrayList<>(Math.min(cardToDraw, size));
         for (int i = 0; i < cardToDraw && !isEmpty(); i++) {
-            drawnCards.add(pop());
+            drawnCards.add(getFirst());
+            head = slot(1);
+            size--;
+            if (decidedOnTop > 0) decidedOnTop--;
         }
         return drawnCards;
     }
-}
\ No newline at end of file
+
+    /**
+     * Puts a card at the bottom of the deck
+     */
+    public void addLast(District card) {
+        if (size == ids.length) grow();
+        ids[slot(size++)] = idOf(card);
+    }
+
+    /**
+     * Puts a card at the bottom of the deck
+     */
+    public void add(District card) {
+        addLast(card);
+    }
+
+    /**
+     * Puts some cards at the bottom of the deck, the first of them being the nearest to the top
+     */
+    public void addAll(Collection<? extends District> cards) {
+        for (District card : cards) addLast(card);
+    }
+
+    /**
+     * Puts a card on the top of the deck
+     */
+    public void addFirst(District card) {
+        if (size == ids.length) grow();
+        head = slot(-1);
+        ids[head] = idOf(card);
+        size++;
+        decidedOnTop++;
+    }
+
+    /**
+     * @param index the position in the deck, from the top
+     * @return the index of this position in the ring buffer
+     */
+    private int slot(int index) {
+        return (head + index) & (ids.length - 1);
+    }
+
+    private void grow() {
+        int[] grown = new int[ids.length << 1];
+        for (int i = 0; i < size; i++) grown[i] = ids[slot(i)];
+        ids = grown;
+        head = 0;
+    }
+
+    private int idOf(District card) {
+        int id = DistrictCatalog.cardId(card);
+        if (id >= 0) return id;
+        if (foreignIds == null) {
+            foreignIds = new IdentityHashMap<>();
+            foreignCards = new ArrayList<>();
+        }
+        return foreignIds.computeIfAbsent(card, c -> {
+            foreignCards.add(c);
+            return DistrictCatalog.size() + foreignCards.size() - 1;
+        });
+    }
+
+    private District cardOf(int id) {
+        return id < DistrictCatalog.size() ? DistrictCatalog.card(id) : foreignCards.get(id - DistrictCatalog.size());
+    }
+}
@@ -57,6 +57,15 @@ public abstract class District extends Card {
         return List.of(getColor());
     }
 
+    /**
+     * @param builtInLastTurn a boolean that is true if the card was built last turn
+     * @return The mask of the colors that can be taken into account when counting bonuses
+     * @see Colors#mask()
+     */
+    public int bonusColorsMask(boolean builtInLastTurn) {
+        return getColor().mask();
+    }
+
     /**
      * @param color the color to be compared
      * @return true if the card color match to the color
@@ -0,0 +1,133 @@
+package fr.univ_cotedazur.polytech.si3.team_c.citadels;
+
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.districts.*;
+
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * Immutable catalog of all the district cards of the game, shared by every game
+ * Each card has a stable id (ordered by type, then by copy number) and each type of district has its own id
+ *
+ * @author Team C
+ */
+public final class DistrictCatalog {
+    private static final List<District> CARDS;
+    private static final List<District> TYPES;
+    private static final int[] CARD_TYPES;
+    private static final Map<District, Integer> CARD_IDS = new IdentityHashMap<>();
+    private static final Map<String, Integer> TYPE_IDS = new HashMap<>();
+
+    static {
+        List<District> cards = new ArrayList<>();
+        List<District> types = new ArrayList<>();
+        List<Integer> cardTypes = new ArrayList<>();
+        for (Map.Entry<Supplier<District>, Integer> type : List.of(
+                Map.entry((Supplier<District>) Cathedral::new, 2),
+                Map.entry((Supplier<District>) Palace::new, 2),
+                Map.entry((Supplier<District>) TownHall::new, 2),
+                Map.entry((Supplier<District>) Fortress::new, 2),
+                Map.entry((Supplier<District>) TheKeep::new, 2),
+                Map.entry((Supplier<District>) Monastery::new, 3),
+                Map.entry((Supplier<District>) Temple::new, 3),
+                Map.entry((Supplier<District>) TradingPost::new, 3),
+                Map.entry((Supplier<District>) Docks::new, 3),
+                Map.entry((Supplier<District>) Harbor::new, 3),
+                Map.entry((Supplier<District>) WatchTower::new, 3),
+                Map.entry((Supplier<District>) Prison::new, 3),
+                Map.entry((Supplier<District>) Battlefield::new, 3),
+                Map.entry((Supplier<District>) Church::new, 4),
+                Map.entry((Supplier<District>) Castle::new, 4),
+                Map.entry((Supplier<District>) Market::new, 4),
+                Map.entry((Supplier<District>) Manor::new, 5),
+                Map.entry((Supplier<District>) Tavern::new, 5),
+                Map.entry((Supplier<District>) SchoolOfMagic::new, 1),
+                Map.entry((Supplier<District>) HauntedCity::new, 1),
+                Map.entry((Supplier<District>) Laboratory::new, 1),
+                Map.entry((Supplier<District>) Smithy::new, 1),
+                Map.entry((Supplier<District>) Observatory::new, 1),
+                Map.entry((Supplier<District>) University::new, 1),
+                Map.entry((Supplier<District>) Graveyard::new, 1),
+                Map.entry((Supplier<District>) Library::new, 1),
+                Map.entry((Supplier<District>) DragonGate::new, 1))) {
+            int typeId = types.size();
+            for (int copy = 0; copy < type.getValue(); copy++) {
+                District card = type.getKey().get();
+                if (copy == 0) {
+                    types.add(card);
+                    TYPE_IDS.put(card.getName(), typeId);
+                }
+                CARD_IDS.put(card, cards.size());
+                cards.add(card);
+                cardTypes.add(typeId);
+            }
+        }
+        CARDS = List.copyOf(cards);
+        TYPES = List.copyOf(types);
+        CARD_TYPES = cardTypes.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private DistrictCatalog() {
+    }
+
+    /**
+     * @return all the district cards of the game, the index of a card being its id
+     */
+    public static List<District> cards() {
+        return CARDS;
+    }
+
+    /**
+     * @return the number of district cards in the game
+     */
+    public static int size() {
+        return CARDS.size();
+    }
+
+    /**
+     * @param id the id of the card
+     * @return the card with this id
+     */
+    public static District card(int id) {
+        return CARDS.get(id);
+    }
+
+    /**
+     * @param card a district card
+     * @return the id of this very card, or -1 if it isn't a card of the catalog
+     */
+    public static int cardId(District card) {
+        return CARD_IDS.getOrDefault(card, -1);
+    }
+
+    /**
+     * @param cardId the id of a card
+     * @return the id of the type of the card
+     */
+    public static int typeOfCard(int cardId) {
+        return CARD_TYPES[cardId];
+    }
+
+    /**
+     * @return the number of different types of district
+     */
+    public static int numberOfTypes() {
+        return TYPES.size();
+    }
+
+    /**
+     * @param typeId the id of the type
+     * @return a card of this type
+     */
+    public static District type(int typeId) {
+        return TYPES.get(typeId);
+    }
+
+    /**
+     * @param district a district, from the catalog or not
+     * @return the id of the type of the district, or -1 if the catalog doesn't know this type
+     */
+    public static int typeId(District district) {
+        return TYPE_IDS.getOrDefault(district.getName(), -1);
+    }
+}
@@ -1,16 +1,37 @@
 package fr.univ_cotedazur.polytech.si3.team_c.citadels;
 
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.events.ConsoleNarrator;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.events.Decision;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.events.EventDispatcher;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.events.GameEvent.*;
 import fr.univ_cotedazur.polytech.si3.team_c.citadels.players.*;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.profiling.DecisionProfiler;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.profiling.FlightEvents.*;
+
+import jdk.jfr.FlightRecorder;
 
 import javax.naming.LimitExceededException;
 import java.util.AbstractMap.SimpleEntry;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
+/**
+ * A game of Citadels, played as a state machine whose steps follow the phases of the rounds
+ * A step which needs a decision of a player suspends the game until the player answers, so that a thread can play
+ * many games whose players decide asynchronously (see {@link GameMultiplexer})
+ *
+ * @author Team C
+ */
 public class Game {
     private static final Logger LOGGER = Logger.getGlobal();
+    /**
+     * The number of turns after which the game is considered stuck
+     */
+    public static final int MAX_TURNS = 100;
     private List<Player> playerList;
     private Deck deck;
     private int currentTurn = 0;
@@ -21,7 +42,110 @@ public class Game {
      * The characters the player can interact with
      */
     private List<Character> charactersToInteractWith;
-    private final Random random = new Random();
+    private final long seed;
+    /**
+     * The number of players the game has been set up for (the characters to discard depend on it)
+     */
+    private final int numberOfPlayers;
+    /**
+     * Random generator of the game (crown)
+     */
+    private final SplittableRandom random;
+    /**
+     * Random generator from which each player gets its own stream
+     */
+    private final SplittableRandom playersRandom;
+    private final EventDispatcher events = new EventDispatcher();
+    /**
+     * Measures the decisions of the players (null if they aren't measured)
+     */
+    private DecisionProfiler profiler;
+    private Phase phase = Phase.SETUP;
+    /**
+     * True once the current turn has started, i.e. its characters are being (or have been) selected
+     */
+    private boolean turnStarted;
+    /**
+     * The decision of the current step, asked to a player who hasn't necessarily answered yet (null if none is asked)
+     */
+    private CompletableFuture<?> pendingDecision;
+    /**
+     * The choice the current step waits for (null if none), and the choices of the event actions it has triggered,
+     * which are made after it
+     */
+    private Choice<?> pendingChoice;
+    private final Deque<EventChoice> eventChoices = new ArrayDeque<>();
+    /**
+     * The message of the last choice made (without the ones of the event actions it has triggered)
+     */
+    private Supplier<String> choiceMessage;
+    /**
+     * The action being done by the current player until its choices are made (null if none), and whether he has chosen it
+     * (rather than doing it at the start of his turn)
+     */
+    private Action currentAction;
+    private boolean chosenAction;
+    private ActionDone actionEvent;
+    /**
+     * True once the setup has started, and the number of players who have been dealt their districts
+     */
+    private boolean setUpStarted;
+    private int setUpPlayers;
+    /**
+     * The index of the crowned player when the characters are selected, and the number of players who have picked theirs
+     */
+    private int selectionCrownIndex;
+    private int nextPicker;
+    /**
+     * The characters called during the round, the index of the next one to call and the player of the last one called
+     */
+    private List<Character> calledCharacters;
+    private int nextCharacter;
+    private Player currentPlayer;
+    private Player previousCrownedPlayer;
+    private int previousCrownedPlayerIndex;
+    private boolean endOfGame;
+    /**
+     * The flight recorder events of the phases being played, only created while the flight recorder runs since the game
+     * keeps them between its steps
+     */
+    private GamePlayed gameEvent;
+    private TurnPlayed turnEvent;
+    private CharacterSelection selectionEvent;
+    private PlayerTurn playerTurnEvent;
+
+    /**
+     * The phases of a game, each step of the game playing a part of its current phase
+     */
+    public enum Phase {
+        /**
+         * The districts and the coins are dealt, and the crown is given
+         */
+        SETUP,
+        /**
+         * A player picks his character (the turn starts with the first pick)
+         */
+        CHARACTER_SELECTION,
+        /**
+         * The called player is robbed or killed, then plays the action of the start of his turn
+         */
+        START_OF_TURN,
+        /**
+         * The player does an action, or ends his turn and the next character is called
+         */
+        ACTION_LOOP,
+        /**
+         * Every character has been called: the crown is passed on, and the game ends if a city is complete
+         */
+        END_OF_ROUND,
+        OVER
+    }
+
+    /**
+     * The choice of an event action, triggered by the action of another player
+     */
+    private record EventChoice(Action eventAction, Choice<?> choice) {
+    }
 
     public Game() {
         this(0);
@@ -36,15 +160,40 @@ public class Game {
     }
 
     public Game(int numberPlayers, CharacterManager characterManager, Player... players) {
-        this.characterManager = (characterManager == null) ? new CharacterManager(numberPlayers, random) : characterManager;
-        deck = new Deck();
+        this(new SplittableRandom().nextLong(), numberPlayers, characterManager, players);
+    }
+
+    public Game(long seed, int numberPlayers, Player... players) {
+        this(seed, numberPlayers, null, players);
+    }
+
+    /**
+     * Creates a game whose random choices (crown, deck, discards, bots) are all derived from the given seed
+     *
+     * @param seed             the seed of the game
+     * @param numberPlayers    the number of players, completed by random bots if there are fewer players given
+     * @param characterManager the character manager (null to use the default one)
+     * @param players          the players of the game
+     */
+    public Game(long seed, int numberPlayers, CharacterManager characterManager, Player... players) {
+        this.seed = seed;
+        this.numberOfPlayers = numberPlayers;
+        if (LOGGER.isLoggable(Level.FINE)) events.subscribe(new ConsoleNarrator(LOGGER));
+        SplittableRandom gameRandom = new SplittableRandom(seed);
+        random = gameRandom.split();
+        playersRandom = gameRandom.split();
+        deck = new Deck(gameRandom.split());
+        SplittableRandom characterRandom = gameRandom.split();
+        this.characterManager = (characterManager == null) ? new CharacterManager(numberPlayers, characterRandom) : characterManager;
+        // The completing bots have their own generator, so that the crown doesn't depend on them
+        SplittableRandom botsRandom = gameRandom.split();
         playerList = new ArrayList<>();
         for (Player player : players) addPlayer(player);
         charactersToInteractWith = new ArrayList<>();
         eventActions = new EnumMap<>(Action.class);
         int initLength = playerList.size();
         for (int i = 1; i <= numberPlayers - initLength; i++) {
-            Player bot = switch (random.nextInt(6)) {
+            Player bot = switch (botsRandom.nextInt(6)) {
                 case 5 -> new RichardBot("richardBot" + i);
                 case 4 -> new RandomBot("randomBot" + i);
                 case 3 -> new AgressiveBot("agressiveBot" + i);
@@ -56,6 +205,36 @@ public class Game {
         }
     }
 
+    /**
+     * @return the seed from which all the random choices of the game are derived
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * @return the number of players the game has been set up for, which may be lower than the number of players of the game
+     */
+    public int getNumberOfPlayers() {
+        return numberOfPlayers;
+    }
+
+    /**
+     * Measures the decisions of the players of this game
+     *
+     * @param profiler the profiler of the decisions (null to stop measuring them)
+     */
+    public void setProfiler(DecisionProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    /**
+     * @return the dispatcher of the events of the game, to which listeners can subscribe
+     */
+    public EventDispatcher getEvents() {
+        return events;
+    }
+
     public List<Player> getPlayerList() {
         return new ArrayList<>(playerList);
     }
@@ -72,6 +251,7 @@ public class Game {
      * Add a player to the game
      */
     protected void addPlayer(Player player) {
+        player.setRandom(playersRandom.split());
         player.setPlayers(() -> {
             int crownIndex = getCrownIndex();
             var res = new ArrayList<IPlayer>(playerList.subList(crownIndex, playerList.size()));
@@ -91,11 +271,11 @@ public class Game {
     }
 
     protected void setDefaultDeck() {
-        this.deck = new Deck();
+        this.deck = new Deck(random.split());
     }
 
     protected void setParametrisedDeck(List<District> cards) {
-        this.deck = new Deck(cards);
+        this.deck = new Deck(cards, random.split());
     }
 
     public Player getCrown() {
@@ -122,6 +302,29 @@ public class Game {
         return new ArrayList<>(charactersToInteractWith);
     }
 
+    /**
+     * Publishes a choice made by a player, if someone listens to the game
+     *
+     * @param player   the player who made the choice
+     * @param decision the kind of choice
+     * @param choice   the choice
+     */
+    void decisionMade(Player player, Decision decision, Object choice) {
+        if (events.hasListeners()) events.publish(new DecisionMade(player, decision, choice));
+    }
+
+    /**
+     * Makes a choice at once, waiting for the player if he takes time, then the choices of the event actions it triggers
+     *
+     * @param choice the choice
+     * @return the message describing what the choice has led to
+     */
+    Supplier<String> choose(Choice<?> choice) {
+        pendingChoice = choice;
+        while (!makeChoices()) waitForDecision();
+        return choiceMessage;
+    }
+
     public void registerPlayerForEventAction(Player player, Action eventAction) {
         eventActions.put(eventAction, player);
     }
@@ -130,122 +333,539 @@ public class Game {
         if (eventActions.get(eventAction) == player) eventActions.remove(eventAction);
     }
 
+    /**
+     * Triggers an event action, done by the player registered for it once the choice being made is over
+     *
+     * @param eventAction the event action
+     * @param caller      the player whose action triggers the event action
+     * @param param       what the action of the caller gives to the event action
+     * @return true if the registered player is asked for the event action, false if no player can do it
+     */
     public <T> boolean callEventAction(Action eventAction, Player caller, T param) {
         if (!eventActions.containsKey(eventAction)) return false;
-        String text = eventAction.doEventAction(this, caller, eventActions.get(eventAction), param);
-        if (text == null) return false;
-        LOGGER.fine(text);
+        Choice<?> choice = eventAction.requestEventAction(this, caller, eventActions.get(eventAction), param);
+        if (choice == null) return false;
+        eventChoices.add(new EventChoice(eventAction, choice));
         return true;
     }
 
 
+    /**
+     * Plays the whole game on the calling thread, waiting for the decisions of the players when they take time
+     */
     public void start() throws LimitExceededException {
-        playerList.forEach(Player::resetPlayer);
+        try {
+            prepare();
+            do {
+                if (currentTurn >= MAX_TURNS) throw new LimitExceededException("The game seems to be stuck");
+            } while (!playTurn());
+            end();
+        } finally {
+            commitGameEvent();
+        }
+    }
+
+    /**
+     * Plays the next step of the game: its setup, the pick of a character, the start of the turn of a player, an action
+     * of the player or the end of the round (and of the game)
+     * If the player has not answered the decision of the step yet, the game doesn't move until he has: the thread can
+     * step other games in the meantime, and step this one again once {@link #ready()} is completed
+     *
+     * @return false once the game is over
+     * @throws LimitExceededException if the game seems to be stuck
+     */
+    public boolean step() throws LimitExceededException {
+        if (isWaiting()) return true;
+        switch (phase) {
+            case SETUP -> {
+                if (!setUpStarted) startSetUp();
+                if (setUpPlayers()) endSetUp();
+            }
+            case CHARACTER_SELECTION -> {
+                if (!turnStarted) {
+                    if (currentTurn >= MAX_TURNS) {
+                        commitGameEvent();
+                        throw new LimitExceededException("The game seems to be stuck");
+                    }
+                    startTurn();
+                }
+                advance();
+            }
+            case START_OF_TURN, ACTION_LOOP -> advance();
+            case END_OF_ROUND -> {
+                if (endRound()) end();
+            }
+            case OVER -> {
+                return false;
+            }
+        }
+        return phase != Phase.OVER;
+    }
+
+    public Phase getPhase() {
+        return phase;
+    }
+
+    /**
+     * @return true if the game waits for the answer of a player to go on
+     */
+    public boolean isWaiting() {
+        return pendingDecision != null && !pendingDecision.isDone();
+    }
+
+    /**
+     * @return a future completed once the game can be stepped again (at once if it doesn't wait for a player)
+     */
+    public CompletableFuture<Void> ready() {
+        return pendingDecision == null ? CompletableFuture.completedFuture(null) : pendingDecision.handle((answer, failure) -> null);
+    }
+
+    private void waitForDecision() {
+        if (isWaiting()) ready().join();
+    }
+
+    /**
+     * Asks the player of a choice for his answer, unless it has already been asked, the answer being given to the choice
+     * A player who doesn't override any request is asked directly, without any future; the answer of another player is
+     * only kept by the game while he thinks, so that an answer given at once isn't stored
+     *
+     * @return true if the player has answered, false if the game waits for him
+     */
+    @SuppressWarnings("unchecked")
+    private <T> boolean ask(Choice<T> choice) {
+        Player player = choice.getPlayer();
+        if (!player.decidesAsynchronously()) {
+            choice.setAnswer(profile(player, choice.getDecision(), choice));
+            return true;
+        }
+        CompletableFuture<T> answer;
+        if (pendingDecision != null) answer = (CompletableFuture<T>) pendingDecision;
+        else if (profiler == null) answer = choice.request();
+        else answer = profiler.profileRequest(player, choice.getDecision(), choice::request);
+        pendingDecision = answer.isDone() ? null : answer;
+        if (pendingDecision != null) return false;
+        choice.setAnswer(answer.join());
+        return true;
+    }
+
+    /**
+     * Asks a player for a choice at once, measured if the game has a profiler
+     */
+    private <T> T profile(Player player, Decision decision, Supplier<T> choice) {
+        return profiler == null ? choice.get() : profiler.profile(player, decision, choice);
+    }
+
+    /**
+     * Makes the pending choice and publishes it, then makes the choices of the event actions it has triggered
+     *
+     * @return true once every choice is made, false if the game waits for a player
+     */
+    private boolean makeChoices() {
+        if (pendingChoice != null) {
+            if (!ask(pendingChoice)) return false;
+            Choice<?> choice = pendingChoice;
+            pendingChoice = null;
+            decisionMade(choice.getPlayer(), choice.getDecision(), choice.getAnswer());
+            choiceMessage = choice.apply();
+        }
+        while (!eventChoices.isEmpty()) {
+            EventChoice eventChoice = eventChoices.peek();
+            Choice<?> choice = eventChoice.choice();
+            if (!ask(choice)) return false;
+            eventChoices.poll();
+            decisionMade(choice.getPlayer(), choice.getDecision(), choice.getAnswer());
+            Supplier<String> text = choice.apply();
+            if (text != null && events.hasListeners())
+                events.publish(new EventActionPerformed(choice.getPlayer(), eventChoice.eventAction(), text));
+        }
+        return true;
+    }
+
+    /**
+     * Deals the districts and the coins to the players and gives the crown, before the first turn
+     */
+    public void prepare() {
+        startSetUp();
         playerInitialization();
+        endSetUp();
+    }
+
+    private void startSetUp() {
+        gameEvent = FlightRecorder.isInitialized() ? new GamePlayed() : null;
+        if (gameEvent != null) gameEvent.begin();
+        playerList.forEach(Player::resetPlayer);
         if (playerList.isEmpty()) throw new IllegalStateException("No players in this game");
-        LOGGER.log(Level.FINE, "Game starts");
+        currentTurn = 0;
+        pendingDecision = null;
+        pendingChoice = null;
+        eventChoices.clear();
+        currentAction = null;
+        if (events.hasListeners()) events.publish(new GameStarted());
+        setUpStarted = true;
+        setUpPlayers = 0;
+    }
+
+    private void endSetUp() {
         setCrown(random.nextInt(playerList.size()));
-        for (int i = 1; true; i++) {
-            if (i > 100) throw new LimitExceededException("The game seems to be stuck");
-            LOGGER.log(Level.FINE, "===== Turn {0} =====", i);
-            currentTurn = i;
-            if (gameTurn()) break;
+        setUpStarted = false;
+        turnStarted = false;
+        phase = Phase.CHARACTER_SELECTION;
+    }
+
+    /**
+     * Plays the next turn of the game (or the rest of the current one, if it has been started by {@link #step()})
+     *
+     * @return true if the game is over after this turn
+     */
+    public boolean playTurn() {
+        if (!turnStarted) startTurn();
+        return finishRound();
+    }
+
+    private void startTurn() {
+        currentTurn++;
+        if (events.hasListeners()) events.publish(new TurnStarted(currentTurn));
+        startRound();
+    }
+
+    /**
+     * Announces the winners of the game
+     */
+    public void end() {
+        phase = Phase.OVER;
+        if (events.hasListeners()) {
+            SimpleEntry<List<Player>, Integer> winners = getWinners();
+            events.publish(new GameEnded(winners.getKey(), winners.getValue()));
         }
-        LOGGER.log(Level.FINE, this::winnersDisplay);
-        LOGGER.log(Level.FINE, "Game ends");
+        commitGameEvent();
+    }
+
+    /**
+     * Records the game as a flight recorder event once it is over or stuck
+     */
+    private void commitGameEvent() {
+        if (gameEvent == null) return;
+        gameEvent.commit(seed, playerList.size(), currentTurn);
+        gameEvent = null;
     }
 
     public void playerInitialization() {
-        for (Player p : playerList) {
-            p.pickDistrictsFromDeck(deck.draw(2), 2);
+        setUpPlayers = 0;
+        while (!setUpPlayers()) waitForDecision();
+    }
+
+    /**
+     * Deals their districts and their coins to the players who haven't been dealt them yet
+     *
+     * @return true once every player has been dealt, false if the game waits for a player to keep his districts
+     */
+    private boolean setUpPlayers() {
+        while (setUpPlayers < playerList.size()) {
+            Player p = playerList.get(setUpPlayers);
+            if (pendingChoice == null) {
+                List<District> drawnCards = deck.draw(2);
+                pendingChoice = new Choice<List<District>>(p, Decision.KEEP_DISTRICTS) {
+                    @Override
+                    public List<District> get() {
+                        return p.pickDistrictsFromDeck(drawnCards, 2);
+                    }
+
+                    @Override
+                    CompletableFuture<List<District>> request() {
+                        return p.requestDistrictsFromDeck(drawnCards, 2);
+                    }
+                };
+            }
+            if (!makeChoices()) return false;
             p.gainCoins(2);
             p.setNumberOfDistrictsToEnd(numberOfDistrictsToEnd());
             p.resetCrown();
+            setUpPlayers++;
         }
+        return true;
     }
 
     /**
      * Each player selects a character in the character list
      */
     public void characterSelectionTurn() {
+        startCharacterSelection();
+        while (!pickCharacter()) waitForDecision();
+    }
+
+    private void startCharacterSelection() {
+        selectionEvent = FlightRecorder.isInitialized() ? new CharacterSelection() : null;
+        if (selectionEvent != null) selectionEvent.begin();
         characterManager.generate();
-        LOGGER.fine(characterManager::toString);
+        if (events.hasListeners())
+            events.publish(new CharactersDiscarded(List.copyOf(characterManager.getHidden()), List.copyOf(characterManager.getVisible())));
         charactersToInteractWith = new ArrayList<>(characterManager.getAvailableCharacters());
-        int crownedPlayerIndex = getCrownIndex();
-        for (int i = 0; i < playerList.size(); i++) {
-            int playerIndex = (crownedPlayerIndex + i) % playerList.size();
-            var player = playerList.get(playerIndex);
-            // Stores players who have already chosen their character
-            List<IPlayer> beforePlayers;
-            if (playerIndex < crownedPlayerIndex) {
-                beforePlayers = new ArrayList<>(playerList.subList(crownedPlayerIndex, playerList.size()));
-                beforePlayers.addAll(playerList.subList(0, playerIndex));
-            } else beforePlayers = new ArrayList<>(playerList.subList(crownedPlayerIndex, playerIndex));
-            Character choosenCharacter = player.pickCharacter(characterManager);
-            player.setPossibleCharacters(beforePlayers, characterManager);
-            characterManager.addPlayerCharacter(player, choosenCharacter);
-            LOGGER.log(Level.FINE, "{0} has chosen the {1}", new Object[]{player.getName(), choosenCharacter});
-            characterManager.getAvailableCharacters().remove(choosenCharacter);
-        }
+        selectionCrownIndex = getCrownIndex();
+        nextPicker = 0;
+        phase = Phase.CHARACTER_SELECTION;
+    }
+
+    /**
+     * The next player picks his character
+     *
+     * @return true if every player has picked his character
+     */
+    private boolean pickCharacter() {
+        int playerIndex = (selectionCrownIndex + nextPicker) % playerList.size();
+        var player = playerList.get(playerIndex);
+        Character choosenCharacter;
+        if (player.decidesAsynchronously()) {
+            Choice<Character> choice = new Choice<>(player, Decision.CHARACTER) {
+                @Override
+                public Character get() {
+                    return player.pickCharacter(characterManager);
+                }
+
+                @Override
+                CompletableFuture<Character> request() {
+                    return player.requestCharacter(characterManager);
+                }
+            };
+            if (!ask(choice)) return false;
+            choosenCharacter = choice.getAnswer();
+        } else choosenCharacter = profile(player, Decision.CHARACTER, () -> player.pickCharacter(characterManager));
+        // Stores players who have already chosen their character
+        List<IPlayer> beforePlayers;
+        if (playerIndex < selectionCrownIndex) {
+            beforePlayers = new ArrayList<>(playerList.subList(selectionCrownIndex, playerList.size()));
+            beforePlayers.addAll(playerList.subList(0, playerIndex));
+        } else beforePlayers = new ArrayList<>(playerList.subList(selectionCrownIndex, playerIndex));
+        player.setPossibleCharacters(beforePlayers, characterManager);
+        characterManager.addPlayerCharacter(player, choosenCharacter);
+        if (events.hasListeners()) events.publish(new CharacterPicked(player, choosenCharacter));
+        characterManager.getAvailableCharacters().remove(choosenCharacter);
+        if (++nextPicker < playerList.size()) return false;
+        if (selectionEvent != null) selectionEvent.commit(seed, currentTurn);
+        selectionEvent = null;
+        return true;
+    }
+
+    private void commitPlayerTurnEvent(Player player) {
+        if (playerTurnEvent != null) playerTurnEvent.commit(seed, currentTurn, player);
+        playerTurnEvent = null;
     }
 
     /**
      * Player chooses the action he wants to play during his turn
      */
     public void playerTurn(Player player) {
-        LOGGER.fine(player::toString);
+        if (startPlayerTurn(player))
+            while (!playAction(player)) waitForDecision();
+    }
+
+    /**
+     * Starts the turn of a player: he is robbed or killed, then plays the action of the start of his turn
+     *
+     * @return false if the player has been killed, his turn being over
+     */
+    private boolean startPlayerTurn(Player player) {
+        playerTurnEvent = FlightRecorder.isInitialized() ? new PlayerTurn() : null;
+        if (playerTurnEvent != null) playerTurnEvent.begin();
+        if (events.hasListeners()) events.publish(new PlayerTurnStarted(player));
         player.createActionSet();
         charactersToInteractWith.remove(player.getCharacter().orElseThrow());
         if (player.sufferAction(SufferedActions.STOLEN)) {
             Player robber = (Player) player.actionCommitter(SufferedActions.STOLEN).orElseThrow();
-            LOGGER.log(Level.FINE, "{0} was robbed because he was the {1}", new Object[]{player.getName(), player.getCharacter().orElseThrow()});
-            LOGGER.log(Level.FINE, "{0} gains {1} coins from {2} and has now {3} coins",
-                    new Object[]{robber.getName(), player.getCoins(), player.getName(), player.getCoins() + robber.getCoins()});
-
-            robber.gainCoins(player.getCoins());
-            player.pay(player.getCoins());
+            int coins = player.getCoins();
+            robber.gainCoins(coins);
+            player.pay(coins);
             // The player who has been robbed give all his coins to the Thief
+            if (events.hasListeners()) events.publish(new CoinsStolen(player, robber, coins));
         }
         if (player.sufferAction(SufferedActions.KILLED)) {
-            LOGGER.log(Level.FINE, "{0} was killed because he was the {1}", new Object[]{player.getName(), player.getCharacter().orElseThrow()});
-            return;
+            if (events.hasListeners()) events.publish(new PlayerKilled(player));
+            commitPlayerTurnEvent(player);
+            return false;
         }
         Action startOfTurnAction = player.playStartOfTurnAction();
         if (startOfTurnAction != Action.NONE)
-            startOfTurnAction.doAction(this, player);
+            doAction(startOfTurnAction, player, false);
+        return true;
+    }
 
+    /**
+     * The player ends the action he is doing, then does the next action he chooses
+     *
+     * @return true if the player has ended his turn
+     */
+    private boolean playAction(Player player) {
+        if (currentAction != null && !endAction(player, actionEvent)) return false;
         Action action;
-        while ((action = player.nextAction()) != Action.NONE) {
-            LOGGER.log(Level.FINE, "{0} wants to {1}", new Object[]{player.getName(), action.getDescription()});
-            String message = action.doAction(this, player);
-            LOGGER.fine(message);
+        if (player.decidesAsynchronously()) {
+            Choice<Action> choice = new Choice<>(player, Decision.ACTION) {
+                @Override
+                public Action get() {
+                    return player.nextAction();
+                }
+
+                @Override
+                CompletableFuture<Action> request() {
+                    return player.requestNextAction();
+                }
+            };
+            if (!ask(choice)) return false;
+            action = choice.getAnswer();
+        } else action = profile(player, Decision.ACTION, player::nextAction);
+        if (action == Action.NONE) {
+            if (events.hasListeners()) events.publish(new ActionChosen(player, Action.NONE)); // The player ends his turn
+            commitPlayerTurnEvent(player);
+            return true;
+        }
+        if (events.hasListeners()) events.publish(new ActionChosen(player, action));
+        doAction(action, player, true);
+        return false;
+    }
+
+    /**
+     * Does an action of a player, recorded as a flight recorder event, unless it waits for a choice of a player
+     * (the action is then ended by {@link #endAction} once he has answered)
+     *
+     * @param chosen true if the player has chosen the action, false if he does it at the start of his turn
+     */
+    private void doAction(Action action, Player player, boolean chosen) {
+        // The event is kept by the game while the action waits, so it is only created while the flight recorder runs
+        ActionDone event = FlightRecorder.isInitialized() ? new ActionDone() : null;
+        if (event != null) event.begin();
+        currentAction = action;
+        chosenAction = chosen;
+        pendingChoice = action.request(this, player);
+        choiceMessage = pendingChoice == null ? action.doAction(this, player) : null;
+        if (!endAction(player, event)) actionEvent = event;
+    }
+
+    /**
+     * Ends the action of a player once the choices it needs are made
+     *
+     * @return false if the game waits for a player
+     */
+    private boolean endAction(Player player, ActionDone event) {
+        if (!makeChoices()) return false;
+        Action action = currentAction;
+        currentAction = null;
+        actionEvent = null;
+        if (event != null) event.commit(seed, currentTurn, player, action);
+        if (chosenAction) {
             player.removeAction(action);
-            LOGGER.fine(player::toString);
+            if (events.hasListeners()) events.publish(new ActionPerformed(player, action, choiceMessage));
         }
+        choiceMessage = null;
+        return true;
     }
 
     /**
      * Defines a round to play in the game
      */
     public boolean gameTurn() {
-        Player previousCrownedPlayer = getCrown();
-        int previousCrownedPlayerIndex = getCrownIndex();
-        characterSelectionTurn();
-        LOGGER.log(Level.FINE, "The game turn begins");
-        boolean isEnd = false;
-        for (Character character : characterManager.charactersList()) {
+        startRound();
+        return finishRound();
+    }
+
+    private void startRound() {
+        turnEvent = FlightRecorder.isInitialized() ? new TurnPlayed() : null;
+        if (turnEvent != null) turnEvent.begin();
+        previousCrownedPlayer = getCrown();
+        previousCrownedPlayerIndex = getCrownIndex();
+        endOfGame = false;
+        turnStarted = true;
+        startCharacterSelection();
+    }
+
+    /**
+     * Plays the steps of the round until its end
+     *
+     * @return true if the game is over after this round
+     */
+    private boolean finishRound() {
+        if (phase == Phase.CHARACTER_SELECTION) {
+            while (!pickCharacter()) waitForDecision();
+            endCharacterSelection();
+        }
+        if (phase == Phase.ACTION_LOOP) finishPlayerTurn();
+        while (phase == Phase.START_OF_TURN) {
+            if (startPlayerTurn(currentPlayer)) {
+                phase = Phase.ACTION_LOOP;
+                finishPlayerTurn();
+            } else endPlayerTurn();
+        }
+        return endRound();
+    }
+
+    /**
+     * Plays the actions of the current player until he ends his turn
+     */
+    private void finishPlayerTurn() {
+        while (!playAction(currentPlayer)) waitForDecision();
+        endPlayerTurn();
+    }
+
+    /**
+     * Plays a step of the round, before its end
+     */
+    private void advance() {
+        switch (phase) {
+            case CHARACTER_SELECTION -> {
+                if (pickCharacter()) endCharacterSelection();
+            }
+            case START_OF_TURN -> {
+                if (startPlayerTurn(currentPlayer)) phase = Phase.ACTION_LOOP;
+                else endPlayerTurn();
+            }
+            case ACTION_LOOP -> {
+                if (playAction(currentPlayer)) endPlayerTurn();
+            }
+            default -> throw new IllegalStateException("No step of a round in the phase " + phase);
+        }
+    }
+
+    private void endCharacterSelection() {
+        if (events.hasListeners()) events.publish(new CharacterSelectionEnded());
+        calledCharacters = characterManager.charactersList();
+        nextCharacter = 0;
+        callNextCharacter();
+    }
+
+    /**
+     * Calls the next character chosen by a player, or ends the round if every character has been called
+     */
+    private void callNextCharacter() {
+        while (nextCharacter < calledCharacters.size()) {
+            Character character = calledCharacters.get(nextCharacter++);
             if (characterManager.characterIsChosen(character)) {
-                Player player = characterManager.getPlayer(character);
-                LOGGER.log(Level.FINE, "It is now {0}''s turn", character);
-                playerTurn(player);
-                if (!isEnd && player.endsGame())
-                    isEnd = true;
-            } else charactersToInteractWith.remove(character);
+                currentPlayer = characterManager.getPlayer(character);
+                if (events.hasListeners()) events.publish(new CharacterCalled(character));
+                phase = Phase.START_OF_TURN;
+                return;
+            }
+            charactersToInteractWith.remove(character);
         }
+        phase = Phase.END_OF_ROUND;
+    }
+
+    private void endPlayerTurn() {
+        if (!endOfGame && currentPlayer.endsGame())
+            endOfGame = true;
+        callNextCharacter();
+    }
+
+    /**
+     * Passes the crown on if the King hasn't taken it
+     *
+     * @return true if the game is over after this round
+     */
+    private boolean endRound() {
         Optional<Character> characterKing = playerList.get(previousCrownedPlayerIndex).getCharacter();
         if (getCrown() == previousCrownedPlayer && characterKing.isPresent() && !characterKing.get().startTurnAction().equals(Action.GET_CROWN))
             setCrown((previousCrownedPlayerIndex + 1) % playerList.size());
-        return isEnd;
+        if (turnEvent != null) turnEvent.commit(seed, currentTurn);
+        turnEvent = null;
+        turnStarted = false;
+        phase = Phase.CHARACTER_SELECTION;
+        return endOfGame;
     }
 
     /**
@@ -269,13 +889,22 @@ public class Game {
      */
     public String winnersDisplay() {
         SimpleEntry<List<Player>, Integer> winners = getWinners();
+        return winnersDisplay(winners.getKey(), winners.getValue());
+    }
+
+    /**
+     * @param winners the winning players
+     * @param score   the score of the winners
+     * @return the string for the winners display
+     */
+    public static String winnersDisplay(List<Player> winners, int score) {
         StringBuilder result = new StringBuilder();
-        if (winners.getKey().size() == 1)
-            result.append("The player ").append(winners.getKey().get(0).getName()).append(" won");
+        if (winners.size() == 1)
+            result.append("The player ").append(winners.get(0).getName()).append(" won");
         else
             result.append("There is an equality between players : ")
-                    .append(winners.getKey().stream().map(Player::getName).collect(Collectors.joining(", ")));
-        return result.append(" with ").append(winners.getValue()).append(" points !").toString();
+                    .append(winners.stream().map(Player::getName).collect(Collectors.joining(", ")));
+        return result.append(" with ").append(score).append(" points !").toString();
     }
 
     /**
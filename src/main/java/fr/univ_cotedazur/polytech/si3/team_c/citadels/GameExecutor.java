@@ -0,0 +1,126 @@
+package fr.univ_cotedazur.polytech.si3.team_c.citadels;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs each game as its own task, to keep a large number of games in flight while their players wait for slow decisions
+ * The tasks run on virtual threads when the runtime has them (Java 21+, found by reflection since the project targets
+ * Java 17), and otherwise on a bounded pool of platform threads, the other games waiting in its queue.
+ * The games don't share any state: their random generators are all derived from their seed, and the global logger
+ * is only read when a game is created (to narrate it at the FINE level).
+ *
+ * @author Team C
+ */
+public class GameExecutor implements AutoCloseable {
+    private static final Method NEW_VIRTUAL_THREAD_EXECUTOR = virtualThreadExecutorFactory();
+    private final ExecutorService executor;
+    private final boolean virtual;
+
+    private GameExecutor(ExecutorService executor, boolean virtual) {
+        this.executor = executor;
+        this.virtual = virtual;
+    }
+
+    private static Method virtualThreadExecutorFactory() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            // Java 19 and 20 have the method, but throw if the preview features aren't enabled
+            ((ExecutorService) factory.invoke(null)).shutdown();
+            return factory;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return true if the runtime can run the games on virtual threads
+     */
+    public static boolean supportsVirtualThreads() {
+        return NEW_VIRTUAL_THREAD_EXECUTOR != null;
+    }
+
+    /**
+     * Creates an executor running each game on a virtual thread, or on a platform pool if the runtime has no virtual threads
+     *
+     * @param platformThreads the number of threads of the platform pool, if the runtime has no virtual threads
+     */
+    public static GameExecutor create(int platformThreads) {
+        if (!supportsVirtualThreads()) return platform(platformThreads);
+        try {
+            return new GameExecutor((ExecutorService) NEW_VIRTUAL_THREAD_EXECUTOR.invoke(null), true);
+        } catch (ReflectiveOperationException e) {
+            return platform(platformThreads);
+        }
+    }
+
+    /**
+     * Creates an executor running the games on a bounded pool of platform threads
+     *
+     * @param threads the number of threads of the pool
+     */
+    public static GameExecutor platform(int threads) {
+        if (threads < 1) throw new IllegalArgumentException("The pool must have at least one thread");
+        AtomicInteger count = new AtomicInteger();
+        return new GameExecutor(Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "citadels-game-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }), false);
+    }
+
+    /**
+     * @return true if the games run on virtual threads
+     */
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    /**
+     * Runs a task, usually playing a game
+     *
+     * @param task the task
+     * @return the result of the task, completed exceptionally with what the task has thrown (even an error, so that
+     * nobody waits forever for a broken game)
+     */
+    public <T> CompletableFuture<T> submit(Callable<T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        executor.execute(() -> {
+            try {
+                result.complete(task.call());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Plays a game
+     *
+     * @param game the game to start
+     * @return the game once it is over, completed exceptionally with a LimitExceededException if it got stuck
+     */
+    public CompletableFuture<Game> start(Game game) {
+        return submit(() -> {
+            game.start();
+            return game;
+        });
+    }
+
+    /**
+     * Waits for the submitted games to be over, then stops the threads (at once if the caller is interrupted)
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            boolean terminated = false;
+            while (!terminated) terminated = executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package fr.univ_cotedazur.polytech.si3.team_c.citadels;
+
+import javax.naming.LimitExceededException;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Plays many games on a single thread, by stepping each game until it waits for the decision of one of its players,
+ * then moving to another game. A waiting game is stepped again once its player has answered, so that the thread only
+ * waits when every game waits for its players (remote or asynchronous ones).
+ *
+ * @author Team C
+ */
+public class GameMultiplexer {
+    /**
+     * The number of steps a game plays before giving its turn to the other games, when its players answer at once
+     */
+    private static final int STEPS_PER_SLICE = 64;
+    private final BlockingQueue<Game> readyGames = new LinkedBlockingQueue<>();
+    /**
+     * The games not over yet, added from any thread while the games are played
+     */
+    private final Map<Game, CompletableFuture<Game>> results = new ConcurrentHashMap<>();
+
+    /**
+     * Adds a game to play, which must not have been started
+     *
+     * @param game the game
+     * @return the game once it is over, completed exceptionally with a LimitExceededException if it got stuck
+     */
+    public CompletableFuture<Game> add(Game game) {
+        if (game.getPhase() != Game.Phase.SETUP) throw new IllegalStateException("The game has already been started");
+        CompletableFuture<Game> result = new CompletableFuture<>();
+        if (results.putIfAbsent(game, result) != null) throw new IllegalArgumentException("The game has already been added");
+        readyGames.add(game);
+        return result;
+    }
+
+    /**
+     * Plays the added games on the calling thread until they are all over
+     */
+    public void run() throws InterruptedException {
+        while (!results.isEmpty()) play(readyGames.take());
+    }
+
+    /**
+     * Plays a slice of a game, until it waits for a player or has played its steps
+     */
+    private void play(Game game) {
+        try {
+            for (int i = 0; i < STEPS_PER_SLICE; i++) {
+                if (!game.step()) {
+                    results.remove(game).complete(game);
+                    return;
+                }
+                if (game.isWaiting()) {
+                    // The answer of the player puts the game back in the queue, from his thread
+                    game.ready().thenRun(() -> readyGames.add(game));
+                    return;
+                }
+            }
+            readyGames.add(game);
+        } catch (LimitExceededException | RuntimeException e) {
+            results.remove(game).completeExceptionally(e);
+        }
+    }
+}
@@ -23,11 +23,48 @@ public interface IPlayer {
      */
     List<District> getBuiltDistricts();
 
+    /**
+     * Gets the number of districts that the player built (and that haven't been destroyed)
+     */
+    default int getNumberOfBuiltDistricts() {
+        return getBuiltDistricts().size();
+    }
+
+    /**
+     * @param color the color of the districts
+     * @return the number of districts of this color that the player built
+     */
+    default int getNumberOfBuiltDistricts(Colors color) {
+        return (int) getBuiltDistricts().stream().filter(district -> district.getColor() == color).count();
+    }
+
+    /**
+     * Gets the score given by the districts that the player built
+     */
+    default int getDistrictsScore() {
+        return getBuiltDistricts().stream().mapToInt(District::getPoint).sum();
+    }
+
+    /**
+     * @param district the district to look for
+     * @return true if the player built a district of the same type (and it hasn't been destroyed)
+     */
+    default boolean hasBuiltDistrict(District district) {
+        return getBuiltDistricts().contains(district);
+    }
+
     /**
      * Gets all the destroyable districts that the player built
      */
     List<District> getDestroyableDistricts();
 
+    /**
+     * Gets the number of destroyable districts that the player built
+     */
+    default int getNumberOfDestroyableDistricts() {
+        return getDestroyableDistricts().size();
+    }
+
     /**
      * Gets if the current player has the crown
      */
@@ -2,22 +2,22 @@ package fr.univ_cotedazur.polytech.si3.team_c.citadels;
 
 import com.beust.jcommander.JCommander;
 import com.beust.jcommander.Parameter;
-import com.opencsv.bean.*;
-import com.opencsv.exceptions.CsvDataTypeMismatchException;
-import com.opencsv.exceptions.CsvRequiredFieldEmptyException;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.dataset.ColumnarExporter;
 import fr.univ_cotedazur.polytech.si3.team_c.citadels.players.*;
-import org.apache.commons.lang3.ArrayUtils;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.profiling.BenchmarkBaseline;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.profiling.BenchmarkSuite;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.profiling.DecisionProfiler;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.profiling.InFlightBenchmark;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.profiling.Measure;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.replay.*;
 
 import javax.naming.LimitExceededException;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.io.Reader;
-import java.io.Writer;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.AbstractMap.SimpleEntry;
 import java.util.*;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -29,8 +29,16 @@ public class Main {
 
 
     public static final Path STATISTICS_PATH = Paths.get("stats", "gamestats.csv");
+    public static final Path BASELINE_PATH = Paths.get("benchmark", "baseline.txt");
 
     private static final Logger LOGGER = Logger.getGlobal();
+    private static final int BENCHMARK_GAMES_PER_RUN = 20;
+    private static final int BENCHMARK_RUNS = 5;
+    /**
+     * The size of the platform pool, large enough for games mostly waiting for their decisions
+     */
+    private static final int PLATFORM_THREADS = 256;
+    private static final long IN_FLIGHT_DECISION_LATENCY = 2;
     @Parameter(names = "--2thousands")
     private boolean twoThousand = false;
 
@@ -40,6 +48,42 @@ public class Main {
     @Parameter(names = "--csv")
     private boolean csv = false;
 
+    @Parameter(names = "--compact", description = "Folds the statistics file into a row per bot")
+    private boolean compact = false;
+
+    @Parameter(names = "--seed", description = "Seed of the simulation, to reproduce a previous run")
+    private Long seed = new SplittableRandom().nextLong();
+
+    @Parameter(names = "--record", description = "File in which the decisions of every game are recorded")
+    private String record;
+
+    @Parameter(names = "--export", description = "Directory in which the results of each player of each game are exported by column")
+    private String export;
+
+    @Parameter(names = "--profile", description = "Measures the latency and the CPU time of the decisions of each bot")
+    private boolean profile = false;
+
+    @Parameter(names = "--benchmark", description = "Plays the benchmark suite and compares it with the baseline")
+    private boolean benchmark = false;
+
+    @Parameter(names = "--save-baseline", description = "Saves the measures of the benchmark suite as the new baseline")
+    private boolean saveBaseline = false;
+
+    @Parameter(names = "--golden", description = "Plays the golden games and checks that they still end as in the golden set")
+    private boolean golden = false;
+
+    @Parameter(names = "--save-golden", description = "Saves the golden games as the new golden set")
+    private boolean saveGolden = false;
+
+    @Parameter(names = "--in-flight", description = "Number of games kept in flight to compare the virtual threads with the platform threads")
+    private Integer inFlight;
+
+    @Parameter(names = "--replay", description = "Replay file whose games are played again and checked")
+    private String replay;
+
+    @Parameter(names = "--game", description = "Seed of the only game to replay")
+    private Long replayedGame;
+
 
     public static void main(String... args) throws Exception {
         Main main = new Main();
@@ -48,91 +92,159 @@ public class Main {
             Arrays.stream(LOGGER.getParent().getHandlers()).forEach(handler -> handler.setLevel(Level.FINEST));
             LOGGER.setLevel(Level.FINEST);
         }
-        List<Statistic> stats = main.csv ? loadCsv(STATISTICS_PATH) : new ArrayList<>();
-
-        List<Statistic> results;
-        if (main.twoThousand) {
-            results = playMultipleGames(1000, 5, new Bot("Bot"), new DiscreetBot("Discrete Bot"), new FearFulBot("Fearful Bot"), new AgressiveBot("Aggressive Bot"), new RandomBot("Random Bot"), new RichardBot("Richard Bot"));
+        if (main.replay != null) {
+            replay(Path.of(main.replay), main.replayedGame);
+            return;
+        }
+        if (main.benchmark) {
+            benchmark(main.saveBaseline);
+            return;
+        }
+        if (main.inFlight != null) {
+            inFlight(main.inFlight);
+            return;
+        }
+        if (main.golden) {
+            golden(main.saveGolden);
+            return;
+        }
+        if (main.compact) {
+            List<Statistic> compacted = new StatisticStore(STATISTICS_PATH).compact();
+            LOGGER.info(() -> "Compacted statistics of " + STATISTICS_PATH + " : " + compacted.size() + " bot(s)");
+            return;
+        }
+        List<Statistic> stats = new ArrayList<>();
+
+        LOGGER.info(() -> "Seed of the simulation: " + main.seed);
+        // The files are written by another thread, the recorder and the exporter being closed before the pipeline
+        try (WriterPipeline pipeline = new WriterPipeline();
+             ReplayRecorder recorder = main.record == null ? null : new ReplayRecorder(Path.of(main.record), pipeline);
+             ColumnarExporter exporter = main.export == null ? null : new ColumnarExporter(Path.of(main.export), pipeline)) {
+            List<Statistic> results;
+            if (main.twoThousand) {
+                results = playMultipleGames(recorder, exporter, main.profile, main.seed, 1000, 5, () -> new Bot("Bot"), () -> new DiscreetBot("Discrete Bot"), () -> new FearFulBot("Fearful Bot"), () -> new AgressiveBot("Aggressive Bot"), () -> new RandomBot("Random Bot"), () -> new RichardBot("Richard Bot"));
+                LOGGER.info(results::toString);
+                stats.addAll(results);
+                results = playMultipleGames(recorder, exporter, main.profile, main.seed + 1, 1000, 4, () -> new Bot("Bot 1"), () -> new Bot("Bot 2"), () -> new Bot("Bot 3"), () -> new Bot("Bot 4"));
+            } else results = playMultipleGames(recorder, exporter, main.profile, main.seed, 1, 4);
             LOGGER.info(results::toString);
             stats.addAll(results);
-            results = playMultipleGames(1000, 4, new Bot("Bot 1"), new Bot("Bot 2"), new Bot("Bot 3"), new Bot("Bot 4"));
-        } else results = playMultipleGames(1, 4);
-        LOGGER.info(results::toString);
-        stats.addAll(results);
 
-        if (main.csv) writeCsv(STATISTICS_PATH, stats);
+            if (main.csv) pipeline.submit(() -> new StatisticStore(STATISTICS_PATH).append(stats));
+        }
     }
 
-    private static List<Statistic> playMultipleGames(int numberOfGames, int numberOfPlayers, Player... players) throws LimitExceededException {
-        HashMap<String, Statistic> stat = new HashMap<>();
-
-        for (int k = 0; k < numberOfGames; k++) {
-            Game game = new Game(numberOfPlayers, players);
-            game.getPlayerList().forEach(player -> stat.putIfAbsent(player.getName(), new Statistic(player.getName())));
-            game.start();
-
-            SimpleEntry<List<Player>, Integer> winners = game.getWinners();
-            List<String> botWinners = winners.getKey().stream().map(Player::getName).toList();
-
-            if (botWinners.size() == 1) stat.get(botWinners.get(0)).addWin(winners.getValue());
-            else botWinners.forEach(bot -> stat.get(bot).addEquality(winners.getValue()));
-
-            List<Player> losers = new ArrayList<>(game.getPlayerList());
-            losers.removeAll(winners.getKey());
-            losers.forEach(bot -> stat.get(bot.getName()).addLoss(bot.getScore(game.getCurrentTurn())));
+    /**
+     * Replays the recorded games and checks that they still end the same way
+     *
+     * @param file the replay file
+     * @param seed the seed of the only game to replay (null to replay all of them)
+     * @throws IllegalStateException if some games diverged from their recording, to end the run with a failure
+     */
+    private static void replay(Path file, Long seed) throws IOException {
+        int replayed = 0;
+        int divergences = 0;
+        long start = System.nanoTime();
+        try (ReplayReader reader = new ReplayReader(file)) {
+            for (ReplayRecord replayRecord = reader.next(); replayRecord != null; replayRecord = reader.next()) {
+                if (seed != null && replayRecord.seed() != seed) continue;
+                try {
+                    new ReplayGame(replayRecord).replay();
+                } catch (ReplayDivergenceException e) {
+                    LOGGER.warning(e::getMessage);
+                    divergences++;
+                }
+                replayed++;
+            }
         }
+        int games = replayed;
+        long duration = (System.nanoTime() - start) / 1_000_000;
+        LOGGER.info(() -> "Replayed " + games + " game(s) in " + duration + " ms");
+        if (divergences > 0)
+            throw new IllegalStateException(divergences + " game(s) diverged from their recording");
+    }
 
-        return new ArrayList<>(stat.values()) {
-            @Override
-            public String toString() {
-                StringBuilder message = new StringBuilder("Statistic measures on ").append(numberOfGames).append(" game(s) :\n");
-                for (Statistic entry : this)
-                    message.append(entry.getName()).append("\n\t").append(entry).append("\n");
-                return message.toString();
-            }
-        };
+    /**
+     * Plays the benchmark suite, then compares its measures with the baseline
+     *
+     * @param save true to replace the baseline with the measures
+     */
+    private static void benchmark(boolean save) throws IOException {
+        BenchmarkSuite suite = new BenchmarkSuite(BENCHMARK_GAMES_PER_RUN, BENCHMARK_RUNS);
+        Map<String, Measure> measures = suite.run((bots, players) -> LOGGER.info(() -> "Benchmarked " + players + " players : " + bots));
+        for (String bots : BenchmarkSuite.BOTS) {
+            StringBuilder line = new StringBuilder(bots).append(" games per second :");
+            for (int players = BenchmarkSuite.MINIMUM_PLAYERS; players <= BenchmarkSuite.MAXIMUM_PLAYERS; players++)
+                line.append(String.format(Locale.ROOT, " %d players: %.1f", players,
+                        measures.get(BenchmarkSuite.key(bots, players, BenchmarkSuite.GAMES_PER_SECOND)).mean()));
+            LOGGER.info(line::toString);
+        }
+        if (Files.exists(BASELINE_PATH)) {
+            Map<String, Measure> baseline = BenchmarkBaseline.load(BASELINE_PATH);
+            LOGGER.info(() -> BenchmarkBaseline.compare(baseline, measures));
+        } else LOGGER.info(() -> "No baseline in " + BASELINE_PATH + " to compare with");
+        if (save) {
+            BenchmarkBaseline.save(BASELINE_PATH, measures, "Java " + System.getProperty("java.version") + ", "
+                    + Runtime.getRuntime().availableProcessors() + " processor(s), " + System.getProperty("os.arch")
+                    + "\n" + BENCHMARK_RUNS + " runs of " + BENCHMARK_GAMES_PER_RUN + " games per case");
+            LOGGER.info(() -> "Saved the baseline in " + BASELINE_PATH);
+        }
     }
 
     /**
-     * Loads statistics data from a CSV file
+     * Plays games whose players wait for their decisions on the platform threads, then on virtual threads if the runtime has them
      *
-     * @param path Path of the file to read
+     * @param games the number of games
      */
-    public static List<Statistic> loadCsv(Path path) throws IOException {
-        if (!Files.exists(path)) return new ArrayList<>();
-        try (Reader reader = Files.newBufferedReader(path)) {
-            CsvToBean<Statistic> cb = new CsvToBeanBuilder<Statistic>(reader)
-                    .withType(Statistic.class)
-                    .withSeparator(';')
-                    .build();
-            return cb.parse();
+    private static void inFlight(int games) throws InterruptedException {
+        InFlightBenchmark benchmark = new InFlightBenchmark(games, IN_FLIGHT_DECISION_LATENCY);
+        try (GameExecutor platform = GameExecutor.platform(PLATFORM_THREADS)) {
+            InFlightBenchmark.Result result = benchmark.run(platform);
+            LOGGER.info(result::toString);
+        }
+        if (!GameExecutor.supportsVirtualThreads()) {
+            LOGGER.info(() -> "Java " + Runtime.version().feature() + " has no virtual threads, they need Java 21");
+            return;
+        }
+        try (GameExecutor virtual = GameExecutor.create(PLATFORM_THREADS)) {
+            InFlightBenchmark.Result result = benchmark.run(virtual);
+            LOGGER.info(result::toString);
         }
     }
 
     /**
-     * Writes statistics data in a CSV file
+     * Plays the golden games, then checks them against the golden set
      *
-     * @param path Path of the file to write in
-     * @param data Data to write
+     * @param save true to replace the golden set with the games instead of checking them
+     * @throws IllegalStateException if some games changed, to end the run with a failure
      */
-    public static void writeCsv(Path path, List<Statistic> data) throws IOException, CsvRequiredFieldEmptyException, CsvDataTypeMismatchException {
-        Files.createDirectories(path.getParent());
-
-        try (Writer writer = new FileWriter(path.toString())) {
-            HeaderColumnNameMappingStrategy<Statistic> strategy = new HeaderColumnNameMappingStrategyBuilder<Statistic>().build();
-            strategy.setType(Statistic.class);
-            var columns = Arrays.stream(Statistic.class.getDeclaredFields())
-                    .filter(field -> field.isAnnotationPresent(CsvPosition.class))
-                    .sorted(Comparator.comparingInt(field -> field.getAnnotation(CsvPosition.class).position()))
-                    .map(field -> (field.isAnnotationPresent(CsvBindByName.class) ? field.getAnnotation(CsvBindByName.class).column() : field.getName()).toUpperCase())
-                    .toArray();
-            strategy.setColumnOrderOnWrite(Comparator.comparingInt(c -> ArrayUtils.indexOf(columns, c)));
-
-            StatefulBeanToCsv<Statistic> sbc = new StatefulBeanToCsvBuilder<Statistic>(writer)
-                    .withMappingStrategy(strategy)
-                    .withSeparator(';')
-                    .build();
-            sbc.write(data);
+    private static void golden(boolean save) throws IOException {
+        GoldenGames games = new GoldenGames();
+        if (save || !Files.exists(GoldenGames.GOLDEN_PATH)) {
+            games.save(GoldenGames.GOLDEN_PATH);
+            LOGGER.info(() -> "Saved the golden set in " + GoldenGames.GOLDEN_PATH);
+            return;
         }
+        List<String> divergences = games.check(GoldenGames.GOLDEN_PATH);
+        divergences.forEach(LOGGER::warning);
+        if (!divergences.isEmpty())
+            throw new IllegalStateException(divergences.size() + " game(s) changed since the golden set");
+        LOGGER.info("No game changed since the golden set");
+    }
+
+    @SafeVarargs
+    private static List<Statistic> playMultipleGames(ReplayRecorder recorder, ColumnarExporter exporter, boolean profile, long seed, int numberOfGames, int numberOfPlayers, Supplier<? extends Player>... players) throws LimitExceededException {
+        DecisionProfiler profiler = profile ? new DecisionProfiler() : null;
+        return new ArrayList<>(new Tournament(numberOfGames, numberOfPlayers, players).withSeed(seed).withRecorder(recorder).withExporter(exporter).withProfiler(profiler).play()) {
+            @Override
+            public String toString() {
+                StringBuilder message = new StringBuilder("Statistic measures on ").append(numberOfGames).append(" game(s) :\n");
+                for (Statistic entry : this)
+                    message.append(entry.getName()).append("\n\t").append(entry)
+                            .append("\n\t").append(entry.confidenceDescription()).append("\n");
+                if (profiler != null) message.append("Decision latencies :\n").append(profiler.report());
+                return message.toString();
+            }
+        };
     }
 }
@@ -1,44 +1,34 @@
 package fr.univ_cotedazur.polytech.si3.team_c.citadels;
 
-import com.opencsv.bean.CsvBindByName;
-
 import java.text.DecimalFormat;
 
+/**
+ * Results of a bot over several games
+ * The counters are exact, and the points are accumulated with Welford's algorithm, so that their variance is
+ * known and the statistics of several shards can be merged without losing precision
+ *
+ * @author Team C
+ */
 public class Statistic {
-    @CsvBindByName(column = "Number of runs")
-    @CsvPosition()
-    private int runs;
+    /**
+     * The quantile of the standard normal distribution for a 95% confidence interval
+     */
+    private static final double Z_95 = 1.959964;
 
-    @CsvBindByName(column = "Name of the bot")
-    @CsvPosition(position = 1)
     private String name;
-    @CsvBindByName(column = "Number of wins")
-    @CsvPosition(position = 2)
-    private int wins;
-    @CsvBindByName(column = "Percentage of wins")
-    @CsvPosition(position = 3)
-    private float winsPercentage;
-    @CsvBindByName(column = "Number of equalities")
-    @CsvPosition(position = 4)
-    private int equalities;
-    @CsvBindByName(column = "Percentage of equalities")
-    @CsvPosition(position = 5)
-    private float equalitiesPercentage;
-    @CsvBindByName(column = "Number of losses")
-    @CsvPosition(position = 6)
-    private int losses;
-    @CsvBindByName(column = "Percentage of losses")
-    @CsvPosition(position = 7)
-    private float lossesPercentage;
-
-    @CsvBindByName(column = "Average points")
-    @CsvPosition(position = 8)
-    private float averagePoints;
-
+    private long runs;
+    private long wins;
+    private long equalities;
+    private long losses;
     /**
-     * For OpenCSV
+     * The exact mean of the points
      */
-    @SuppressWarnings("unused")
+    private double meanPoints;
+    /**
+     * The sum of the squared deviations of the points from their mean, NaN if it is unknown for some of the games
+     */
+    private double squaredDeviations;
+
     public Statistic() {
     }
 
@@ -46,6 +36,19 @@ public class Statistic {
         this.name = name;
     }
 
+    /**
+     * Creates the statistics of a bot read from a file
+     */
+    Statistic(String name, long wins, long equalities, long losses, double meanPoints, double squaredDeviations) {
+        this.name = name;
+        this.wins = wins;
+        this.equalities = equalities;
+        this.losses = losses;
+        this.runs = wins + equalities + losses;
+        this.meanPoints = meanPoints;
+        this.squaredDeviations = squaredDeviations;
+    }
+
     public void addWin(int points) {
         wins++;
         runned(points);
@@ -61,49 +64,144 @@ public class Statistic {
         runned(points);
     }
 
+    /**
+     * Adds the results of another statistic of the same bot to this one
+     *
+     * @param other the statistic to merge in this one
+     * @return this statistic
+     */
+    public Statistic merge(Statistic other) {
+        if (other.runs == 0) return this;
+        long totalRuns = runs + other.runs;
+        double delta = other.meanPoints - meanPoints;
+        // Chan et al. combination of the two partial results
+        meanPoints += delta * other.runs / totalRuns;
+        squaredDeviations += other.squaredDeviations + delta * delta * runs * other.runs / totalRuns;
+        runs = totalRuns;
+        wins += other.wins;
+        equalities += other.equalities;
+        losses += other.losses;
+        return this;
+    }
+
     private void runned(int points) {
-        averagePoints = (averagePoints * runs + points) / ++runs;
-        winsPercentage = wins * 100f / runs;
-        equalitiesPercentage = equalities * 100f / runs;
-        lossesPercentage = losses * 100f / runs;
+        double delta = points - meanPoints;
+        meanPoints += delta / ++runs;
+        squaredDeviations += delta * (points - meanPoints);
+    }
+
+    private float percentage(long count) {
+        return runs == 0 ? 0 : count * 100f / runs;
     }
 
     public String getName() {
         return name;
     }
 
-    public int getWin() {
+    public long getWin() {
         return wins;
     }
 
-    public int getLosses() {
+    public long getLosses() {
         return losses;
     }
 
-    public int getEquality() {
+    public long getEquality() {
         return equalities;
     }
 
     public float getWinPercentage() {
-        return winsPercentage;
+        return percentage(wins);
     }
 
     public float getLossPercentage() {
-        return lossesPercentage;
+        return percentage(losses);
     }
 
     public float getEqualityPercentage() {
-        return equalitiesPercentage;
+        return percentage(equalities);
     }
 
     public float getAveragePoints() {
-        return averagePoints;
+        return (float) meanPoints;
     }
 
-    public int numberOfTest() {
+    public long numberOfTest() {
         return runs;
     }
 
+    /**
+     * @return the mean of the points, without the rounding of {@link #getAveragePoints()}
+     */
+    public double getMeanPoints() {
+        return meanPoints;
+    }
+
+    /**
+     * @return the sum of the squared deviations of the points from their mean, NaN if it is unknown
+     */
+    double getSquaredDeviations() {
+        return squaredDeviations;
+    }
+
+    /**
+     * @return false if the deviations of the points are unknown for some of the games (stored without them by an older
+     * version), their standard deviation and confidence interval being then NaN
+     */
+    public boolean hasPointsDeviation() {
+        return !Double.isNaN(squaredDeviations);
+    }
+
+    /**
+     * @return the sample standard deviation of the points
+     */
+    public double getPointsStandardDeviation() {
+        return runs < 2 ? 0 : Math.sqrt(squaredDeviations / (runs - 1));
+    }
+
+    /**
+     * @return the half-width of the 95% confidence interval of the mean of the points
+     */
+    public double getPointsConfidenceInterval() {
+        return runs == 0 ? 0 : Z_95 * getPointsStandardDeviation() / Math.sqrt(runs);
+    }
+
+    /**
+     * @return the proportion of games won, between 0 and 1
+     */
+    public double getWinRate() {
+        return runs == 0 ? 0 : (double) wins / runs;
+    }
+
+    /**
+     * @return the sample standard deviation of a win (1 if the game is won, else 0)
+     */
+    public double getWinRateStandardDeviation() {
+        if (runs < 2) return 0;
+        double winRate = getWinRate();
+        return Math.sqrt(winRate * (1 - winRate) * runs / (runs - 1));
+    }
+
+    /**
+     * @return the half-width of the 95% confidence interval of the win rate
+     */
+    public double getWinRateConfidenceInterval() {
+        return runs == 0 ? 0 : Z_95 * getWinRateStandardDeviation() / Math.sqrt(runs);
+    }
+
+    /**
+     * @return the win rate and the points with their 95% confidence intervals
+     */
+    public String confidenceDescription() {
+        DecimalFormat df = new DecimalFormat("0.0");
+        DecimalFormat precise = new DecimalFormat("0.00");
+        String winRate = "Win rate: " + df.format(getWinRate() * 100) + "% ± " + precise.format(getWinRateConfidenceInterval() * 100)
+                + "% ; Avr points: " + precise.format(getMeanPoints());
+        if (!hasPointsDeviation()) return winRate + " (deviation unknown: some games were stored without it)";
+        return winRate + " ± " + precise.format(getPointsConfidenceInterval())
+                + " (standard deviation: " + precise.format(getPointsStandardDeviation()) + ")";
+    }
+
     @Override
     public String toString() {
         DecimalFormat df = new DecimalFormat("0.0");
@@ -0,0 +1,70 @@
+package fr.univ_cotedazur.polytech.si3.team_c.citadels;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Gathers the statistics of games played by several threads without any lock
+ * The games are split in chunks, each chunk being played by a single thread in its own statistics (its cell),
+ * which are published once the chunk is over. The published cells are never modified again, so they can be folded
+ * at any time, and they are always folded in the order of the chunks to get the same result whatever the threads
+ *
+ * @author Team C
+ */
+public class StatisticAggregator {
+    private final AtomicReferenceArray<Map<String, Statistic>> cells;
+
+    /**
+     * @param numberOfCells the number of chunks of games
+     */
+    public StatisticAggregator(int numberOfCells) {
+        cells = new AtomicReferenceArray<>(numberOfCells);
+    }
+
+    /**
+     * Publishes the statistics of a chunk, which mustn't be modified afterwards
+     *
+     * @param cell       the index of the chunk
+     * @param statistics the statistics of each player of the chunk, by name
+     */
+    public void publish(int cell, Map<String, Statistic> statistics) {
+        if (!cells.compareAndSet(cell, null, statistics))
+            throw new IllegalStateException("The chunk " + cell + " has already been published");
+    }
+
+    /**
+     * @param cell the index of the chunk
+     * @return true if the statistics of the chunk have been published
+     */
+    public boolean isPublished(int cell) {
+        return cells.get(cell) != null;
+    }
+
+    /**
+     * @return the number of chunks whose statistics have been published
+     */
+    public int numberOfPublishedCells() {
+        int published = 0;
+        for (int i = 0; i < cells.length(); i++) if (cells.get(i) != null) published++;
+        return published;
+    }
+
+    /**
+     * Folds the statistics published so far, in the order of the chunks
+     * It can be called while the other chunks are still being played
+     *
+     * @return new statistics of each player
+     */
+    public List<Statistic> snapshot() {
+        Map<String, Statistic> folded = new LinkedHashMap<>();
+        for (int i = 0; i < cells.length(); i++) {
+            Map<String, Statistic> cell = cells.get(i);
+            if (cell == null) continue;
+            cell.forEach((name, statistic) -> folded.computeIfAbsent(name, Statistic::new).merge(statistic));
+        }
+        return new ArrayList<>(folded.values());
+    }
+}
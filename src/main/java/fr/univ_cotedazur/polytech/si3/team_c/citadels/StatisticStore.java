@@ -0,0 +1,153 @@
+package fr.univ_cotedazur.polytech.si3.team_c.citadels;
+
+import com.opencsv.CSVParser;
+import com.opencsv.CSVParserBuilder;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Append-only CSV file of the statistics of the runs, one row per bot and per run
+ * A run only appends its rows (and forces them on the disk), so its cost doesn't depend on the history, and a crash
+ * can only lose the row being written, which is dropped by the next append. The rows can be compacted into a row per bot.
+ * The mean and the squared deviations of the points are stored with all their digits, so the rows can be merged exactly.
+ * The rows of the previous format have no deviations: they are marked as unknown (NaN), and stay so once merged.
+ *
+ * @author Team C
+ */
+public class StatisticStore {
+    private static final char SEPARATOR = ';';
+    private static final List<String> HEADER = List.of("NUMBER OF RUNS", "NAME OF THE BOT", "NUMBER OF WINS",
+            "PERCENTAGE OF WINS", "NUMBER OF EQUALITIES", "PERCENTAGE OF EQUALITIES", "NUMBER OF LOSSES",
+            "PERCENTAGE OF LOSSES", "AVERAGE POINTS", "MEAN POINTS", "SQUARED DEVIATIONS OF POINTS");
+    private static final CSVParser PARSER = new CSVParserBuilder().withSeparator(SEPARATOR).build();
+    private final Path path;
+
+    /**
+     * @param path the file of the statistics, created on the first append
+     */
+    public StatisticStore(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Appends the statistics of a run at the end of the file
+     * A file written in a previous format is compacted first
+     *
+     * @param statistics the statistics of each bot
+     */
+    public void append(List<Statistic> statistics) throws IOException {
+        if (Files.exists(path) && !HEADER.equals(readHeader())) compact();
+        if (path.getParent() != null) Files.createDirectories(path.getParent());
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long end = endOfLastRow(channel);
+            StringBuilder rows = new StringBuilder();
+            if (end == 0) appendRow(rows, HEADER);
+            statistics.forEach(statistic -> appendRow(rows, row(statistic)));
+            ByteBuffer buffer = ByteBuffer.wrap(rows.toString().getBytes(StandardCharsets.UTF_8));
+            channel.truncate(end); // Drops the incomplete row of an interrupted run
+            while (buffer.hasRemaining()) channel.write(buffer, end + buffer.position());
+            channel.force(true);
+        }
+    }
+
+    /**
+     * @return the position following the last line break of the file (0 if the file has no complete line)
+     */
+    private static long endOfLastRow(FileChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        for (long end = channel.size(); end > 0; ) {
+            long start = Math.max(0, end - buffer.capacity());
+            buffer.clear().limit((int) (end - start));
+            while (buffer.hasRemaining()) if (channel.read(buffer, start + buffer.position()) < 0) break;
+            for (int i = buffer.position() - 1; i >= 0; i--)
+                if (buffer.get(i) == '\n') return start + i + 1;
+            end = start;
+        }
+        return 0;
+    }
+
+    /**
+     * Reads all the complete rows of the file (the row being written during a crash is ignored)
+     *
+     * @return the statistics of each row, in the order of the file
+     */
+    public List<Statistic> load() throws IOException {
+        List<Statistic> statistics = new ArrayList<>();
+        if (!Files.exists(path)) return statistics;
+        String content = Files.readString(path, StandardCharsets.UTF_8);
+        List<String> lines = content.substring(0, content.lastIndexOf('\n') + 1).lines().toList();
+        if (lines.isEmpty()) return statistics;
+        List<String> header = List.of(PARSER.parseLine(lines.get(0)));
+        int name = header.indexOf("NAME OF THE BOT");
+        int wins = header.indexOf("NUMBER OF WINS");
+        int equalities = header.indexOf("NUMBER OF EQUALITIES");
+        int losses = header.indexOf("NUMBER OF LOSSES");
+        int average = header.indexOf("AVERAGE POINTS");
+        int mean = header.indexOf("MEAN POINTS");
+        int deviations = header.indexOf("SQUARED DEVIATIONS OF POINTS");
+        for (String line : lines.subList(1, lines.size())) {
+            String[] row = PARSER.parseLine(line);
+            // The files written before the mean and the deviations were stored only have the rounded average
+            statistics.add(new Statistic(row[name], Long.parseLong(row[wins]), Long.parseLong(row[equalities]),
+                    Long.parseLong(row[losses]), Double.parseDouble(row[mean < 0 ? average : mean]),
+                    deviations < 0 ? Double.NaN : Double.parseDouble(row[deviations])));
+        }
+        return statistics;
+    }
+
+    /**
+     * Folds all the rows of the file into a row per bot
+     * The compacted file is written next to the file, then moved over it, so a crash leaves one of them intact
+     *
+     * @return the statistics of each bot
+     */
+    public List<Statistic> compact() throws IOException {
+        Map<String, Statistic> folded = new LinkedHashMap<>();
+        for (Statistic statistic : load())
+            folded.computeIfAbsent(statistic.getName(), Statistic::new).merge(statistic);
+        List<Statistic> statistics = new ArrayList<>(folded.values());
+        StringBuilder rows = new StringBuilder();
+        appendRow(rows, HEADER);
+        statistics.forEach(statistic -> appendRow(rows, row(statistic)));
+        Path compacted = path.resolveSibling(path.getFileName() + ".compact");
+        try (FileChannel channel = FileChannel.open(compacted, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(rows.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) channel.write(buffer);
+            channel.force(true);
+        }
+        Files.move(compacted, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return statistics;
+    }
+
+    private List<String> readHeader() throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line = reader.readLine();
+            return line == null ? HEADER : List.of(PARSER.parseLine(line));
+        }
+    }
+
+    private static List<String> row(Statistic statistic) {
+        return List.of(Long.toString(statistic.numberOfTest()), statistic.getName(), Long.toString(statistic.getWin()),
+                Float.toString(statistic.getWinPercentage()), Long.toString(statistic.getEquality()),
+                Float.toString(statistic.getEqualityPercentage()), Long.toString(statistic.getLosses()),
+                Float.toString(statistic.getLossPercentage()), Float.toString(statistic.getAveragePoints()),
+                Double.toString(statistic.getMeanPoints()), Double.toString(statistic.getSquaredDeviations()));
+    }
+
+    private static void appendRow(StringBuilder rows, List<String> values) {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) rows.append(SEPARATOR);
+            rows.append('"').append(values.get(i).replace("\"", "\"\"")).append('"');
+        }
+        rows.append('\n');
+    }
+}
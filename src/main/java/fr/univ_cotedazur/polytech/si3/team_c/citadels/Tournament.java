@@ -0,0 +1,313 @@
+package fr.univ_cotedazur.polytech.si3.team_c.citadels;
+
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.dataset.ColumnarExporter;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.dataset.GameExport;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.players.Player;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.profiling.DecisionProfiler;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.replay.GameRecording;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.replay.ReplayRecorder;
+
+import javax.naming.LimitExceededException;
+import java.util.AbstractMap.SimpleEntry;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Supplier;
+
+/**
+ * Plays a batch of games spread over a work-stealing pool
+ * Each game gets fresh players from the given factories, so no state is shared between two games
+ * The games are played by chunks, whose statistics are gathered without locks by a {@link StatisticAggregator}
+ *
+ * @author Team C
+ */
+public class Tournament {
+    /**
+     * Number of games of a chunk, played by a single task in its own statistics
+     */
+    private static final int GAMES_PER_TASK = 16;
+    /**
+     * Odd constant spreading the seeds of consecutive games (golden ratio, as in SplittableRandom)
+     */
+    private static final long SEED_GAMMA = 0x9E3779B97F4A7C15L;
+    private final int numberOfGames;
+    private final int numberOfPlayers;
+    private final List<Supplier<? extends Player>> playerFactories;
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private long seed = new SplittableRandom().nextLong();
+    private ReplayRecorder recorder;
+    private ColumnarExporter exporter;
+    private DecisionProfiler profiler;
+    private GameExecutor executor;
+    private volatile StatisticAggregator aggregator;
+
+    /**
+     * @param numberOfGames   the number of games to play
+     * @param numberOfPlayers the number of players in each game (completed by random bots if there are fewer factories)
+     * @param playerFactories the factories creating a new instance of each player for every game
+     */
+    @SafeVarargs
+    @SuppressWarnings("varargs") // The factories are only read, while they are copied into an immutable list
+    public Tournament(int numberOfGames, int numberOfPlayers, Supplier<? extends Player>... playerFactories) {
+        this.numberOfGames = numberOfGames;
+        this.numberOfPlayers = numberOfPlayers;
+        this.playerFactories = List.of(playerFactories);
+    }
+
+    /**
+     * Sets the number of threads used to play the games
+     *
+     * @param parallelism the number of threads
+     */
+    public Tournament withParallelism(int parallelism) {
+        if (parallelism < 1) throw new IllegalArgumentException("The parallelism must be positive");
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    /**
+     * Sets the seed of the tournament, from which the seed of each game is derived
+     * With the same seed, the results are the same whatever the parallelism
+     *
+     * @param seed the seed of the tournament
+     */
+    public Tournament withSeed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    /**
+     * Records the decisions of every game (even the stuck ones) in a replay file
+     *
+     * @param recorder the recorder of the replay file
+     */
+    public Tournament withRecorder(ReplayRecorder recorder) {
+        this.recorder = recorder;
+        return this;
+    }
+
+    /**
+     * Exports the results of each player of each game in a columnar dataset
+     *
+     * @param exporter the exporter of the dataset
+     */
+    public Tournament withExporter(ColumnarExporter exporter) {
+        this.exporter = exporter;
+        return this;
+    }
+
+    /**
+     * Measures the decisions of the players of every game
+     *
+     * @param profiler the profiler of the decisions
+     */
+    public Tournament withProfiler(DecisionProfiler profiler) {
+        this.profiler = profiler;
+        return this;
+    }
+
+    /**
+     * Plays each game as a task of the executor (on a virtual thread when the runtime has them) instead of playing
+     * the chunks of games on the work-stealing pool, whose parallelism is then ignored
+     * The statistics of a chunk are still added in the order of its games once they are all over, so the results are
+     * the same as on the pool
+     *
+     * @param executor the executor of the games, which isn't closed by the tournament
+     */
+    public Tournament withExecutor(GameExecutor executor) {
+        this.executor = executor;
+        return this;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * @param index the index of the game in the tournament
+     * @return the seed of the game, which only depends on the tournament seed and on the game index
+     */
+    public long gameSeed(int index) {
+        return new SplittableRandom(seed + index * SEED_GAMMA).nextLong();
+    }
+
+    public int getNumberOfGames() {
+        return numberOfGames;
+    }
+
+    /**
+     * Plays all the games of the tournament
+     *
+     * @return the statistics of each player, merged from all the games
+     */
+    public List<Statistic> play() throws LimitExceededException {
+        int numberOfChunks = (numberOfGames + GAMES_PER_TASK - 1) / GAMES_PER_TASK;
+        aggregator = new StatisticAggregator(numberOfChunks);
+        if (executor != null) return playOnExecutor(numberOfChunks);
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(new GamesTask(0, numberOfChunks));
+            return aggregator.snapshot();
+        } catch (StuckGameException e) {
+            throw e.getCause();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private List<Statistic> playOnExecutor(int numberOfChunks) throws LimitExceededException {
+        CompletableFuture<?>[] chunks = new CompletableFuture<?>[numberOfChunks];
+        for (int chunk = 0; chunk < numberOfChunks; chunk++) {
+            List<CompletableFuture<Game>> games = new ArrayList<>();
+            for (int i = chunk * GAMES_PER_TASK; i < endOfChunk(chunk); i++) {
+                int index = i;
+                games.add(executor.submit(() -> playGame(index)));
+            }
+            int cell = chunk;
+            chunks[chunk] = CompletableFuture.allOf(games.toArray(CompletableFuture<?>[]::new)).thenRun(() -> {
+                Map<String, Statistic> stat = new LinkedHashMap<>();
+                games.forEach(game -> addResults(game.join(), stat));
+                aggregator.publish(cell, stat);
+            });
+        }
+        try {
+            CompletableFuture.allOf(chunks).join();
+            return aggregator.snapshot();
+        } catch (CompletionException e) {
+            Throwable cause = e;
+            while (cause instanceof CompletionException && cause.getCause() != null) cause = cause.getCause();
+            if (cause instanceof LimitExceededException stuck) throw stuck;
+            if (cause instanceof RuntimeException runtimeException) throw runtimeException;
+            if (cause instanceof Error error) throw error;
+            throw e;
+        }
+    }
+
+    /**
+     * Gives the statistics of the games played so far, while the tournament is being played (by chunks of games)
+     *
+     * @return new statistics of each player, empty if the tournament hasn't started
+     */
+    public List<Statistic> snapshot() {
+        StatisticAggregator current = aggregator;
+        return current == null ? new ArrayList<>() : current.snapshot();
+    }
+
+    /**
+     * @return the number of games whose statistics can be seen in a snapshot
+     */
+    public int getNumberOfPlayedGames() {
+        StatisticAggregator current = aggregator;
+        if (current == null) return 0;
+        int played = 0;
+        // The chunks are published in any order, and the last one can be shorter
+        for (int chunk = 0; chunk * GAMES_PER_TASK < numberOfGames; chunk++)
+            if (current.isPublished(chunk)) played += endOfChunk(chunk) - chunk * GAMES_PER_TASK;
+        return played;
+    }
+
+    /**
+     * @return the index following the last game of the chunk
+     */
+    private int endOfChunk(int chunk) {
+        return Math.min(numberOfGames, (chunk + 1) * GAMES_PER_TASK);
+    }
+
+    /**
+     * Creates a game with fresh instances of the players
+     *
+     * @param index the index of the game in the tournament
+     */
+    protected Game createGame(int index) {
+        Player[] players = playerFactories.stream().map(Supplier::get).toArray(Player[]::new);
+        return new Game(gameSeed(index), numberOfPlayers, players);
+    }
+
+    /**
+     * Plays a game, recording and exporting it if needed
+     *
+     * @param index the index of the game in the tournament
+     * @return the game, once it is over
+     */
+    private Game playGame(int index) throws LimitExceededException {
+        Game game = createGame(index);
+        if (profiler != null) game.setProfiler(profiler);
+        GameRecording recording = recorder == null ? null : recorder.record(game, index);
+        GameExport export = exporter == null ? null : exporter.export(game, index);
+        try {
+            game.start();
+        } finally {
+            if (recording != null) recording.finish(game);
+        }
+
+        if (export != null) export.finish(game, game.getWinners().getKey());
+        return game;
+    }
+
+    /**
+     * Adds the results of a game to the statistics
+     *
+     * @param game the game, once it is over
+     * @param stat the statistics of each player, by name
+     */
+    private void addResults(Game game, Map<String, Statistic> stat) {
+        game.getPlayerList().forEach(player -> stat.putIfAbsent(player.getName(), new Statistic(player.getName())));
+        SimpleEntry<List<Player>, Integer> winners = game.getWinners();
+        List<String> botWinners = winners.getKey().stream().map(Player::getName).toList();
+
+        if (botWinners.size() == 1) stat.get(botWinners.get(0)).addWin(winners.getValue());
+        else botWinners.forEach(bot -> stat.get(bot).addEquality(winners.getValue()));
+
+        List<Player> losers = new ArrayList<>(game.getPlayerList());
+        losers.removeAll(winners.getKey());
+        losers.forEach(bot -> stat.get(bot.getName()).addLoss(bot.getScore(game.getCurrentTurn())));
+    }
+
+    /**
+     * Plays a range of chunks of games, splitting it in two halves while it has several chunks
+     */
+    private class GamesTask extends RecursiveAction {
+        private final int fromChunk;
+        private final int toChunk;
+
+        GamesTask(int fromChunk, int toChunk) {
+            this.fromChunk = fromChunk;
+            this.toChunk = toChunk;
+        }
+
+        @Override
+        protected void compute() {
+            if (fromChunk == toChunk) return;
+            if (toChunk - fromChunk == 1) {
+                Map<String, Statistic> stat = new LinkedHashMap<>();
+                for (int i = fromChunk * GAMES_PER_TASK; i < endOfChunk(fromChunk); i++) {
+                    try {
+                        addResults(playGame(i), stat);
+                    } catch (LimitExceededException e) {
+                        throw new StuckGameException(e);
+                    }
+                }
+                aggregator.publish(fromChunk, stat);
+                return;
+            }
+            int middle = (fromChunk + toChunk) >>> 1;
+            invokeAll(new GamesTask(fromChunk, middle), new GamesTask(middle, toChunk));
+        }
+    }
+
+    /**
+     * Carries a stuck game out of the pool
+     */
+    private static class StuckGameException extends RuntimeException {
+        StuckGameException(LimitExceededException cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized LimitExceededException getCause() {
+            return (LimitExceededException) super.getCause();
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package fr.univ_cotedazur.polytech.si3.team_c.citadels;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves the writing of the files (replays, datasets, statistics) out of the threads playing the games
+ * The writes are queued in a bounded queue, which blocks the game threads only when the disk can't keep up,
+ * and are run in order by a single writer thread, which takes them by batches.
+ * If a write fails, the next writes are still run, and the first failure is thrown by the next call of the pipeline.
+ * An error (like an OutOfMemoryError) stops the writer thread: it is the failure, and the callers stop waiting for it.
+ *
+ * @author Team C
+ */
+public class WriterPipeline implements Closeable {
+    /**
+     * A write, run by the writer thread
+     */
+    @FunctionalInterface
+    public interface Write {
+        void run() throws IOException;
+    }
+
+    /**
+     * The default number of writes that can wait in the queue
+     */
+    public static final int DEFAULT_CAPACITY = 1024;
+    private static final int BATCH_SIZE = 256;
+    /**
+     * How long the callers wait for the writer before checking that it is still alive
+     */
+    private static final long LIVENESS_CHECK_MILLIS = 100;
+    private static final Write END = () -> {
+    };
+    private final BlockingQueue<Write> queue;
+    private final Thread writer;
+    private volatile IOException failure;
+    private volatile boolean closed;
+
+    public WriterPipeline() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity the number of writes that can wait in the queue before the callers are blocked
+     */
+    public WriterPipeline(int capacity) {
+        queue = new ArrayBlockingQueue<>(capacity);
+        writer = new Thread(this::runWrites, "citadels-writer");
+        writer.start();
+    }
+
+    private void runWrites() {
+        List<Write> batch = new ArrayList<>(BATCH_SIZE);
+        try {
+            while (true) {
+                batch.add(queue.take());
+                queue.drainTo(batch, BATCH_SIZE - 1);
+                for (Write write : batch) {
+                    if (write == END) return;
+                    run(write);
+                }
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            failure = new InterruptedIOException("The writer thread has been interrupted");
+            Thread.currentThread().interrupt();
+        } catch (Throwable e) {
+            // Written first, so that the callers see it once the thread is dead
+            failure = new IOException("The writer thread stopped on " + e, e);
+        }
+    }
+
+    private void run(Write write) {
+        try {
+            write.run();
+        } catch (IOException e) {
+            if (failure == null) failure = e;
+        } catch (UncheckedIOException e) {
+            if (failure == null) failure = e.getCause();
+        } catch (RuntimeException e) {
+            if (failure == null) failure = new IOException(e);
+        }
+    }
+
+    /**
+     * Queues a write, waiting for some room in the queue if it is full
+     *
+     * @param write the write to run by the writer thread
+     * @throws UncheckedIOException if a previous write failed
+     */
+    public void submit(Write write) {
+        IOException previousFailure = failure;
+        if (previousFailure != null) throw new UncheckedIOException(previousFailure);
+        if (closed) throw new IllegalStateException("The pipeline is closed");
+        try {
+            put(write);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UncheckedIOException(new InterruptedIOException("Interrupted while waiting for the writer"));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Waits for some room in the queue to put a write
+     *
+     * @throws IOException if the writer thread stopped, the write being lost
+     */
+    private void put(Write write) throws InterruptedException, IOException {
+        while (!queue.offer(write, LIVENESS_CHECK_MILLIS, TimeUnit.MILLISECONDS)) checkWriterAlive();
+    }
+
+    private void checkWriterAlive() throws IOException {
+        if (writer.isAlive()) return;
+        IOException writerFailure = failure;
+        throw writerFailure != null ? writerFailure : new IOException("The writer thread has stopped");
+    }
+
+    /**
+     * Waits until all the writes queued before have been run
+     *
+     * @throws IOException if a write failed
+     */
+    public void flush() throws IOException {
+        if (failure != null) throw failure;
+        CountDownLatch done = new CountDownLatch(1);
+        submit(done::countDown);
+        try {
+            while (!done.await(LIVENESS_CHECK_MILLIS, TimeUnit.MILLISECONDS)) checkWriterAlive();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the writer");
+        }
+        if (failure != null) throw failure;
+    }
+
+    /**
+     * Runs the remaining writes, then stops the writer thread
+     *
+     * @throws IOException if a write failed
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        try {
+            if (writer.isAlive()) put(END);
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the writer");
+        }
+        if (failure != null) throw failure;
+    }
+}
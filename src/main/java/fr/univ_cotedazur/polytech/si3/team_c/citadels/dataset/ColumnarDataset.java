@@ -0,0 +1,69 @@
+package fr.univ_cotedazur.polytech.si3.team_c.citadels.dataset;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Reads the columns of a dataset written by a {@link ColumnarExporter}, one column at a time
+ *
+ * @author Team C
+ */
+public class ColumnarDataset {
+    private final Path directory;
+
+    public ColumnarDataset(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * @return the names of the players, by id
+     */
+    public List<String> players() throws IOException {
+        return Files.readAllLines(directory.resolve(ColumnarExporter.PLAYERS_FILE), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return the number of rows of the dataset
+     */
+    public long numberOfRows() throws IOException {
+        return Files.size(directory.resolve(ResultColumn.GAME.fileName())) / ResultColumn.GAME.getWidth();
+    }
+
+    /**
+     * Reads a column of bytes, ints or longs, as longs
+     */
+    public long[] column(ResultColumn column) throws IOException {
+        ByteBuffer buffer = read(column);
+        long[] values = new long[buffer.remaining() / column.getWidth()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = switch (column.getWidth()) {
+                case Byte.BYTES -> buffer.get();
+                case Integer.BYTES -> buffer.getInt();
+                default -> buffer.getLong();
+            };
+        }
+        return values;
+    }
+
+    /**
+     * Reads a column of ints
+     */
+    public int[] intColumn(ResultColumn column) throws IOException {
+        if (column.getWidth() != Integer.BYTES) throw new IllegalArgumentException(column + " isn't a column of ints");
+        ByteBuffer buffer = read(column);
+        int[] values = new int[buffer.remaining() / Integer.BYTES];
+        buffer.asIntBuffer().get(values);
+        return values;
+    }
+
+    private ByteBuffer read(ResultColumn column) throws IOException {
+        try (FileChannel channel = FileChannel.open(directory.resolve(column.fileName()))) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package fr.univ_cotedazur.polytech.si3.team_c.citadels.dataset;
+
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.Game;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.WriterPipeline;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.players.Player;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Streams the results of each player of each game into a file per column (see {@link ResultColumn})
+ * The rows are buffered by chunks, so the memory doesn't depend on the number of games.
+ * The names of the players are written once in a dictionary file, a line per name, the columns only keeping their ids.
+ * The rows can be written by a {@link WriterPipeline}, so that the games don't wait for the disk.
+ *
+ * @author Team C
+ */
+public class ColumnarExporter implements Closeable {
+    /**
+     * The name of the dictionary file of the player names
+     */
+    public static final String PLAYERS_FILE = "players.txt";
+    private static final int ROWS_PER_CHUNK = 1 << 14;
+    private static final ResultColumn[] COLUMNS = ResultColumn.values();
+    private final Path directory;
+    private final WriterPipeline pipeline;
+    private final FileChannel[] channels = new FileChannel[COLUMNS.length];
+    private final ByteBuffer[] chunks = new ByteBuffer[COLUMNS.length];
+    private final Map<String, Integer> names = new LinkedHashMap<>();
+    private long rows;
+
+    /**
+     * @param directory the directory of the dataset, whose column files are replaced
+     */
+    public ColumnarExporter(Path directory) throws IOException {
+        this(directory, null);
+    }
+
+    /**
+     * @param directory the directory of the dataset, whose column files are replaced
+     * @param pipeline  the pipeline writing the rows (null to write them in the threads of the games)
+     */
+    public ColumnarExporter(Path directory, WriterPipeline pipeline) throws IOException {
+        this.directory = directory;
+        this.pipeline = pipeline;
+        Files.createDirectories(directory);
+        for (ResultColumn column : COLUMNS) {
+            channels[column.ordinal()] = FileChannel.open(directory.resolve(column.fileName()), StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            chunks[column.ordinal()] = ByteBuffer.allocateDirect(ROWS_PER_CHUNK * column.getWidth());
+        }
+    }
+
+    /**
+     * Starts collecting the characters played in a game, whose export must be finished once the game is over
+     *
+     * @param game      the game to export
+     * @param gameIndex the index of the game in the run
+     */
+    public GameExport export(Game game, int gameIndex) {
+        GameExport export = new GameExport(this, game, gameIndex);
+        game.getEvents().subscribe(export);
+        return export;
+    }
+
+    /**
+     * Adds the rows of a game
+     *
+     * @param characters the characters played by each player, as bitmasks
+     * @param results    the result of each player
+     */
+    void append(int gameIndex, Game game, int[] characters, byte[] results) {
+        List<Player> players = game.getPlayerList();
+        long seed = game.getSeed();
+        int turns = game.getCurrentTurn();
+        String[] playerNames = new String[players.size()];
+        int[] scores = new int[players.size()];
+        long[] districts = new long[players.size()];
+        for (int seat = 0; seat < players.size(); seat++) {
+            playerNames[seat] = players.get(seat).getName();
+            scores[seat] = players.get(seat).getScore(turns);
+            districts[seat] = players.get(seat).getBuiltDistrictTypes();
+        }
+        if (pipeline != null) pipeline.submit(() -> write(gameIndex, seed, turns, playerNames, scores, results, characters, districts));
+        else write(gameIndex, seed, turns, playerNames, scores, results, characters, districts);
+    }
+
+    private synchronized void write(int gameIndex, long seed, int turns, String[] players, int[] scores, byte[] results,
+                                    int[] characters, long[] districts) {
+        for (int seat = 0; seat < players.length; seat++) {
+            chunk(ResultColumn.GAME).putInt(gameIndex);
+            chunk(ResultColumn.SEED).putLong(seed);
+            chunk(ResultColumn.SEAT).put((byte) seat);
+            chunk(ResultColumn.PLAYER).putInt(names.computeIfAbsent(players[seat], name -> names.size()));
+            chunk(ResultColumn.SCORE).putInt(scores[seat]);
+            chunk(ResultColumn.RESULT).put(results[seat]);
+            chunk(ResultColumn.TURNS).putInt(turns);
+            chunk(ResultColumn.CHARACTERS).putInt(characters[seat]);
+            chunk(ResultColumn.DISTRICTS).putLong(districts[seat]);
+            if (++rows % ROWS_PER_CHUNK == 0) flush();
+        }
+    }
+
+    private ByteBuffer chunk(ResultColumn column) {
+        return chunks[column.ordinal()];
+    }
+
+    private void flush() {
+        try {
+            for (int i = 0; i < COLUMNS.length; i++) {
+                chunks[i].flip();
+                while (chunks[i].hasRemaining()) channels[i].write(chunks[i]);
+                chunks[i].clear();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return the number of rows exported
+     */
+    public synchronized long numberOfRows() {
+        return rows;
+    }
+
+    /**
+     * Writes the last chunk and the dictionary of the names
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if (pipeline != null) pipeline.flush();
+        } finally {
+            closeFiles();
+        }
+    }
+
+    private synchronized void closeFiles() throws IOException {
+        try {
+            flush();
+            Files.write(directory.resolve(PLAYERS_FILE), names.keySet(), StandardCharsets.UTF_8);
+        } finally {
+            for (FileChannel channel : channels) channel.close();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package fr.univ_cotedazur.polytech.si3.team_c.citadels.dataset;
+
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.Game;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.events.GameEvent;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.events.GameEvent.CharacterPicked;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.events.GameListener;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.players.Player;
+
+import java.util.List;
+
+/**
+ * Collects the characters played by each player of a game, to export the results of the game once it is over
+ *
+ * @author Team C
+ */
+public class GameExport implements GameListener {
+    private final ColumnarExporter exporter;
+    private final int gameIndex;
+    private final List<Player> players;
+    private final int[] characters;
+
+    GameExport(ColumnarExporter exporter, Game game, int gameIndex) {
+        this.exporter = exporter;
+        this.gameIndex = gameIndex;
+        this.players = game.getPlayerList();
+        this.characters = new int[players.size()];
+    }
+
+    @Override
+    public void onEvent(GameEvent event) {
+        if (event instanceof CharacterPicked picked) {
+            for (int seat = 0; seat < players.size(); seat++)
+                if (players.get(seat) == picked.player()) characters[seat] |= 1 << picked.character().getTurn();
+        }
+    }
+
+    /**
+     * Exports the results of the game
+     *
+     * @param game    the exported game
+     * @param winners the players who won the game
+     */
+    public void finish(Game game, List<Player> winners) {
+        byte[] results = new byte[players.size()];
+        for (int seat = 0; seat < players.size(); seat++) {
+            if (!winners.contains(players.get(seat))) results[seat] = ResultColumn.LOSS;
+            else results[seat] = winners.size() == 1 ? ResultColumn.WIN : ResultColumn.EQUALITY;
+        }
+        exporter.append(gameIndex, game, characters, results);
+        game.getEvents().unsubscribe(this);
+    }
+}
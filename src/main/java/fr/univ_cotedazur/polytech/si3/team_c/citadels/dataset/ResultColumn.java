@@ -0,0 +1,70 @@
+package fr.univ_cotedazur.polytech.si3.team_c.citadels.dataset;
+
+/**
+ * A column of the results dataset, with a row per player and per game
+ * Each column is stored in its own file of fixed-size big-endian values
+ *
+ * @author Team C
+ */
+public enum ResultColumn {
+    /**
+     * The index of the game in its run
+     */
+    GAME(Integer.BYTES),
+    /**
+     * The seed of the game
+     */
+    SEED(Long.BYTES),
+    /**
+     * The seat of the player
+     */
+    SEAT(Byte.BYTES),
+    /**
+     * The id of the name of the player in the dictionary of the dataset
+     */
+    PLAYER(Integer.BYTES),
+    /**
+     * The score of the player at the end of the game
+     */
+    SCORE(Integer.BYTES),
+    /**
+     * The result of the player: {@link #LOSS}, {@link #WIN} or {@link #EQUALITY}
+     */
+    RESULT(Byte.BYTES),
+    /**
+     * The number of turns of the game
+     */
+    TURNS(Integer.BYTES),
+    /**
+     * The characters played by the player during the game, as a bitmask of their turns
+     */
+    CHARACTERS(Integer.BYTES),
+    /**
+     * The districts built by the player at the end of the game, as a bitmask of their type ids in the catalog
+     */
+    DISTRICTS(Long.BYTES);
+
+    public static final byte LOSS = 0;
+    public static final byte WIN = 1;
+    public static final byte EQUALITY = 2;
+
+    private final int width;
+
+    ResultColumn(int width) {
+        this.width = width;
+    }
+
+    /**
+     * @return the number of bytes of a value of the column
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * @return the name of the file of the column
+     */
+    public String fileName() {
+        return name().toLowerCase() + ".col";
+    }
+}
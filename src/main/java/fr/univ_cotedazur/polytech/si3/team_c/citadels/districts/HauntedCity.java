@@ -15,4 +15,10 @@ public class HauntedCity extends District {
         if (builtInLastTurn) return List.of(getColor());
         return List.of(Colors.values());
     }
+
+    @Override
+    public int bonusColorsMask(boolean builtInLastTurn) {
+        if (builtInLastTurn) return getColor().mask();
+        return Colors.ALL_COLORS_MASK;
+    }
 }
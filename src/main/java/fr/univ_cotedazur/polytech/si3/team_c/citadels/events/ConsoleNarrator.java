@@ -0,0 +1,58 @@
+package fr.univ_cotedazur.polytech.si3.team_c.citadels.events;
+
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.Action;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.CharacterManager;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.Game;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.events.GameEvent.*;
+
+import java.text.MessageFormat;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Narrates the game in a logger, at the FINE level
+ *
+ * @author Team C
+ */
+public class ConsoleNarrator implements GameListener {
+    private final Logger logger;
+
+    public ConsoleNarrator(Logger logger) {
+        this.logger = logger;
+    }
+
+    @Override
+    public void onEvent(GameEvent event) {
+        if (event instanceof GameStarted) {
+            logger.log(Level.FINE, "Game starts");
+        } else if (event instanceof TurnStarted turnStarted) {
+            logger.log(Level.FINE, "===== Turn {0} =====", turnStarted.turn());
+        } else if (event instanceof CharactersDiscarded discarded) {
+            logger.fine(() -> CharacterManager.discardDescription(discarded.hidden(), discarded.visible()));
+        } else if (event instanceof CharacterPicked picked) {
+            logger.fine(() -> MessageFormat.format("{0} has chosen the {1}", picked.player().getName(), picked.character()));
+        } else if (event instanceof CharacterSelectionEnded) {
+            logger.log(Level.FINE, "The game turn begins");
+        } else if (event instanceof CharacterCalled called) {
+            logger.log(Level.FINE, "It is now {0}''s turn", called.character());
+        } else if (event instanceof PlayerTurnStarted turnStarted) {
+            logger.fine(turnStarted.player()::toString);
+        } else if (event instanceof CoinsStolen stolen) {
+            logger.fine(() -> MessageFormat.format("{0} was robbed because he was the {1}", stolen.victim().getName(), stolen.victim().getCharacter().orElseThrow()));
+            logger.fine(() -> MessageFormat.format("{0} gains {1} coins from {2} and has now {3} coins",
+                    stolen.robber().getName(), stolen.coins(), stolen.victim().getName(), stolen.robber().getCoins()));
+        } else if (event instanceof PlayerKilled killed) {
+            logger.fine(() -> MessageFormat.format("{0} was killed because he was the {1}", killed.player().getName(), killed.player().getCharacter().orElseThrow()));
+        } else if (event instanceof ActionChosen chosen && chosen.action() != Action.NONE) {
+            logger.fine(() -> MessageFormat.format("{0} wants to {1}", chosen.player().getName(), chosen.action().getDescription()));
+        } else if (event instanceof ActionPerformed performed) {
+            if (performed.message() != null) logger.fine(performed.message());
+            logger.fine(performed.player()::toString);
+        } else if (event instanceof EventActionPerformed performed) {
+            logger.fine(performed.message());
+        } else if (event instanceof GameEnded ended) {
+            logger.fine(() -> Game.winnersDisplay(ended.winners(), ended.score()));
+            logger.log(Level.FINE, "Game ends");
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package fr.univ_cotedazur.polytech.si3.team_c.citadels.events;
+
+/**
+ * The kinds of choices a player makes during a game
+ * The picked characters and the chosen actions are published as their own events, the other choices as {@link GameEvent.DecisionMade}
+ *
+ * @author Team C
+ */
+public enum Decision {
+    /**
+     * The character picked for the turn (a Character)
+     */
+    CHARACTER,
+    /**
+     * The next action of the turn (an Action, NONE ending the turn)
+     */
+    ACTION,
+    /**
+     * The districts kept among the drawn ones (a List of District)
+     */
+    KEEP_DISTRICTS,
+    /**
+     * The districts built (a List of District)
+     */
+    BUILD_DISTRICTS,
+    /**
+     * The card discarded to gain a coin (a District)
+     */
+    DISCARD,
+    /**
+     * The character to rob (a Character)
+     */
+    ROB,
+    /**
+     * The character to kill (a Character)
+     */
+    KILL,
+    /**
+     * The cards exchanged with the deck (a List of District)
+     */
+    EXCHANGE_WITH_DECK,
+    /**
+     * The player with whom the hand is exchanged (an IPlayer)
+     */
+    EXCHANGE_WITH_PLAYER,
+    /**
+     * The district to destroy and its owner (a SimpleEntry of IPlayer and District)
+     */
+    DESTROY,
+    /**
+     * Whether a destroyed district is taken back (a Boolean)
+     */
+    RECOVER
+}
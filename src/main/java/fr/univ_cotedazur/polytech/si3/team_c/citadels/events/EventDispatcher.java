@@ -0,0 +1,36 @@
+package fr.univ_cotedazur.polytech.si3.team_c.citadels.events;
+
+import java.util.Arrays;
+
+/**
+ * Dispatches the events of a single game to its listeners
+ * The publishers check {@link #hasListeners()} before creating an event, so a game without listeners creates none
+ *
+ * @author Team C
+ */
+public class EventDispatcher {
+    private GameListener[] listeners = new GameListener[0];
+
+    public void subscribe(GameListener listener) {
+        listeners = Arrays.copyOf(listeners, listeners.length + 1);
+        listeners[listeners.length - 1] = listener;
+    }
+
+    public void unsubscribe(GameListener listener) {
+        listeners = Arrays.stream(listeners).filter(l -> l != listener).toArray(GameListener[]::new);
+    }
+
+    /**
+     * @return true if at least one listener wants the events
+     */
+    public boolean hasListeners() {
+        return listeners.length > 0;
+    }
+
+    /**
+     * Gives the event to each listener, in their order of subscription
+     */
+    public void publish(GameEvent event) {
+        for (GameListener listener : listeners) listener.onEvent(event);
+    }
+}
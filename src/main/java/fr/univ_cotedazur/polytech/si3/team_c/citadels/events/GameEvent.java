@@ -0,0 +1,120 @@
+package fr.univ_cotedazur.polytech.si3.team_c.citadels.events;
+
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.Action;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.Character;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.District;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.IPlayer;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.players.Player;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Something that happened during a game, published to the listeners of the game
+ *
+ * @author Team C
+ */
+public sealed interface GameEvent {
+    /**
+     * The players got their first cards and coins, the game begins
+     */
+    record GameStarted() implements GameEvent {
+    }
+
+    /**
+     * A new turn (character selection then the turns of the characters) begins
+     */
+    record TurnStarted(int turn) implements GameEvent {
+    }
+
+    /**
+     * Some characters have been put aside for the turn
+     */
+    record CharactersDiscarded(List<Character> hidden, List<Character> visible) implements GameEvent {
+    }
+
+    /**
+     * A player has chosen his character for the turn
+     */
+    record CharacterPicked(Player player, Character character) implements GameEvent {
+    }
+
+    /**
+     * All the players have chosen their character, they now play in the order of the characters
+     */
+    record CharacterSelectionEnded() implements GameEvent {
+    }
+
+    /**
+     * A character is called, the player who chose it will play
+     */
+    record CharacterCalled(Character character) implements GameEvent {
+    }
+
+    /**
+     * A player begins his turn
+     */
+    record PlayerTurnStarted(Player player) implements GameEvent {
+    }
+
+    /**
+     * A player has been robbed by the thief, who took his coins
+     */
+    record CoinsStolen(Player victim, Player robber, int coins) implements GameEvent {
+    }
+
+    /**
+     * A player won coins (or paid them, if the delta is negative) by doing an action, from the bank
+     * The coins given before the first turn aren't published, the coins of a robbed player are published as {@link CoinsStolen}
+     */
+    record CoinsMoved(Player player, int delta, Action reason) implements GameEvent {
+    }
+
+    /**
+     * A player has been killed by the assassin and skips his turn
+     */
+    record PlayerKilled(Player player) implements GameEvent {
+    }
+
+    /**
+     * A player has chosen the next action of his turn
+     */
+    record ActionChosen(Player player, Action action) implements GameEvent {
+    }
+
+    /**
+     * A player made a choice during an action, see {@link Decision} for the type of the choice
+     */
+    record DecisionMade(Player player, Decision decision, Object choice) implements GameEvent {
+    }
+
+    /**
+     * A player did an action, the message describing it is formatted on demand (null if nothing happened)
+     */
+    record ActionPerformed(Player player, Action action, Supplier<String> message) implements GameEvent {
+    }
+
+    /**
+     * A player reacted to an event (like the destruction of a district) with an action
+     */
+    record EventActionPerformed(Player player, Action action, Supplier<String> message) implements GameEvent {
+    }
+
+    /**
+     * A player built a district
+     */
+    record DistrictBuilt(Player player, District district, int turn) implements GameEvent {
+    }
+
+    /**
+     * A player destroyed a district of another player
+     */
+    record DistrictDestroyed(Player destroyer, IPlayer owner, District district) implements GameEvent {
+    }
+
+    /**
+     * The game is over
+     */
+    record GameEnded(List<Player> winners, int score) implements GameEvent {
+    }
+}
@@ -0,0 +1,11 @@
+package fr.univ_cotedazur.polytech.si3.team_c.citadels.events;
+
+/**
+ * Receives the events of a game, in the thread playing the game
+ *
+ * @author Team C
+ */
+@FunctionalInterface
+public interface GameListener {
+    void onEvent(GameEvent event);
+}
@@ -7,9 +7,7 @@ import java.util.AbstractMap.SimpleEntry;
 import java.util.*;
 import java.util.function.DoubleSupplier;
 import java.util.function.Function;
-import java.util.function.Predicate;
 import java.util.function.ToIntFunction;
-import java.util.stream.Collectors;
 
 /**
  * Robot player
@@ -250,11 +248,11 @@ public class Bot extends Player {
                 .map(district -> new SimpleEntry<>(district, districtProfitability(district)))
                 .sorted(Comparator.<SimpleEntry<District, Double>>comparingDouble(SimpleEntry::getValue).reversed()).toList();
         int availableCoins = getCoins();
-        double coinNecessity = (getNumberOfDistrictsToEnd() - getBuiltDistricts().size() - districtsByProfitability.stream().takeWhile(district -> availableCoins - district.getKey().getCost() > 0).count()) / (double) getNumberOfDistrictsToEnd();
-        double securityNecessity = getBuiltDistricts().size() / (double) getNumberOfDistrictsToEnd();
-        double buildNecessity = (1 - coinNecessity) * getBuiltDistricts().size() / getNumberOfDistrictsToEnd();
+        double coinNecessity = (getNumberOfDistrictsToEnd() - getNumberOfBuiltDistricts() - districtsByProfitability.stream().takeWhile(district -> availableCoins - district.getKey().getCost() > 0).count()) / (double) getNumberOfDistrictsToEnd();
+        double securityNecessity = getNumberOfBuiltDistricts() / (double) getNumberOfDistrictsToEnd();
+        double buildNecessity = (1 - coinNecessity) * getNumberOfBuiltDistricts() / getNumberOfDistrictsToEnd();
         double cardNecessity = 1.0 / (getHandDistricts().size() + 1); // The need to gain cards
-        double fear = 0.5 + getPlayers().stream().mapToInt(built -> built.getBuiltDistricts().size() - getBuiltDistricts().size()).max().orElse(0) / 16.0; // The need to handicap other players
+        double fear = 0.5 + getPlayers().stream().mapToInt(built -> built.getNumberOfBuiltDistricts() - getNumberOfBuiltDistricts()).max().orElse(0) / 16.0; // The need to handicap other players
 
         double coinProfitability = quantityOfColorBuilt(character.getColor()) * coloredDistrictMultiplier();
         double securityProfitability = 0;
@@ -338,15 +336,13 @@ public class Bot extends Player {
      * @param district The district whose profitability is to be calculated
      */
     protected double districtProfitability(District district) {
-        if (getBuiltDistricts().contains(district)) return -1; // We can't build the same district twice
-        var builtColors = getBuiltDistricts().stream().map(District::getColor).collect(Collectors.toSet());
-        var missingColorsForBonus = Arrays.stream(Colors.values()).filter(Predicate.not(builtColors::contains)).toList();
+        if (hasBuiltDistrict(district)) return -1; // We can't build the same district twice
 
         return district.getPoint()
                 + quantityOfColorBuilt(district.getColor()) / (double) getNumberOfDistrictsToEnd()
-                + districtPropertyGain(district, District::numberOfDistrictsToDraw, this::numberOfDistrictsToDraw) / (getBuiltDistricts().size() + 1)
-                + districtPropertyGain(district, District::numberOfDistrictsToKeep, this::numberOfDistrictsToKeep) / (getBuiltDistricts().size() + 1)
-                + (district.bonusColors(false).stream().anyMatch(missingColorsForBonus::contains) ? 1 : 0)
+                + districtPropertyGain(district, District::numberOfDistrictsToDraw, this::numberOfDistrictsToDraw) / (getNumberOfBuiltDistricts() + 1)
+                + districtPropertyGain(district, District::numberOfDistrictsToKeep, this::numberOfDistrictsToKeep) / (getNumberOfBuiltDistricts() + 1)
+                + (district.bonusColors(false).stream().anyMatch(color -> getNumberOfBuiltDistricts(color) == 0) ? 1 : 0)
                 + (district.isDestructible() ? 0 : 1)
                 + district.getAction().size()
                 + district.getEventAction().size()
@@ -423,7 +419,7 @@ public class Bot extends Player {
     @Override
     public List<District> pickDistrictsFromDeck(List<District> drawnCards, int amountToChoose) {
         ArrayList<District> chosen = new ArrayList<>(drawnCards.stream()
-                .filter(c -> !getBuiltDistricts().contains(c))
+                .filter(c -> !hasBuiltDistrict(c))
                 .filter(c -> !getHandDistricts().contains(c))
                 .sorted(Comparator.comparingDouble(this::districtProfitability).reversed())
                 .limit(amountToChoose).toList());
@@ -453,9 +449,13 @@ public class Bot extends Player {
      * @return a tuple with the most constructed color and its number of occurrences
      */
     private Map.Entry<Colors, Long> mostConstructedColor(IPlayer player) {
-        return player.getBuiltDistricts().stream()
-                .collect(Collectors.groupingBy(District::getColor, Collectors.counting()))
-                .entrySet().stream().max(Comparator.comparingLong(Map.Entry::getValue)).orElse(null);
+        Map.Entry<Colors, Long> mostConstructedColor = null;
+        for (Colors color : Colors.values()) {
+            long occurrences = player.getNumberOfBuiltDistricts(color);
+            if (occurrences > 0 && (mostConstructedColor == null || occurrences > mostConstructedColor.getValue()))
+                mostConstructedColor = Map.entry(color, occurrences);
+        }
+        return mostConstructedColor;
     }
 
     /**
@@ -556,7 +556,7 @@ public class Bot extends Player {
      */
     @Override
     public Character chooseCharacterToKill(List<Character> characterList) {
-        SimpleEntry<IPlayer, Integer> maxBuilder = playerWithMaxAttribute(player -> player.getBuiltDistricts().size());
+        SimpleEntry<IPlayer, Integer> maxBuilder = playerWithMaxAttribute(player -> player.getNumberOfBuiltDistricts());
         SimpleEntry<IPlayer, Integer> richestPlayer = playerWithMaxAttribute(IPlayer::getCoins);
         IPlayer bestPlayerToChoose;
         int maxBuilderSize = possibleCharacters.get(maxBuilder.getKey()).size();
@@ -617,9 +617,8 @@ public class Bot extends Player {
     protected List<IPlayer> getMostDangerousPlayersByBuiltDistricts(List<IPlayer> districtBuilt) {
         return districtBuilt.stream()
                 .filter(player -> !player.equals(this))
-                .sorted(Comparator.comparing((IPlayer player) -> player.getBuiltDistricts().size())
-                        .thenComparingLong((IPlayer player) -> player.getBuiltDistricts().stream()
-                                .filter(district -> district.getColor() == Colors.PURPLE).count()).reversed()).toList();
+                .sorted(Comparator.comparing((IPlayer player) -> player.getNumberOfBuiltDistricts())
+                        .thenComparingInt((IPlayer player) -> player.getNumberOfBuiltDistricts(Colors.PURPLE)).reversed()).toList();
     }
 
     /**
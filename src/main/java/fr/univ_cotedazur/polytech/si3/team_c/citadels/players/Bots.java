@@ -0,0 +1,50 @@
+package fr.univ_cotedazur.polytech.si3.team_c.citadels.players;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Every kind of bot, by the name of its class, in the order in which they sit around a table of mixed bots
+ * The golden games and the benchmarks create their bots from here, so that a new kind of bot is played by all of them
+ *
+ * @author Team C
+ */
+public final class Bots {
+    /**
+     * The factory of each kind of bot, creating a bot from the name of the player
+     */
+    public static final Map<String, Function<String, Player>> FACTORIES;
+    /**
+     * The kinds of bots, in the order of their factories
+     */
+    public static final List<String> KINDS;
+
+    static {
+        Map<String, Function<String, Player>> factories = new LinkedHashMap<>();
+        factories.put("Bot", Bot::new);
+        factories.put("RichardBot", RichardBot::new);
+        factories.put("FearFulBot", FearFulBot::new);
+        factories.put("DiscreetBot", DiscreetBot::new);
+        factories.put("AgressiveBot", AgressiveBot::new);
+        factories.put("RandomBot", RandomBot::new);
+        FACTORIES = Collections.unmodifiableMap(factories);
+        KINDS = List.copyOf(factories.keySet());
+    }
+
+    private Bots() {
+    }
+
+    /**
+     * @param kind the kind of bot (one of {@link #KINDS})
+     * @param name the name of the player
+     * @return a new bot of this kind
+     */
+    public static Player create(String kind, String name) {
+        Function<String, Player> factory = FACTORIES.get(kind);
+        if (factory == null) throw new IllegalArgumentException("Unknown bot: " + kind);
+        return factory.apply(name);
+    }
+}
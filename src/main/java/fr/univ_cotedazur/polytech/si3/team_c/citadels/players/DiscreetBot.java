@@ -51,10 +51,10 @@ public class DiscreetBot extends Bot {
 
     @Override
     protected double districtProfitability(District district) {
-        if (getBuiltDistricts().contains(district)) return -1; // We can't build the same district twice
+        if (hasBuiltDistrict(district)) return -1; // We can't build the same district twice
 
-        double defaultProfitability = districtPropertyGain(district, District::numberOfDistrictsToDraw, this::numberOfDistrictsToDraw) / (getBuiltDistricts().size() + 1)
-                + districtPropertyGain(district, District::numberOfDistrictsToKeep, this::numberOfDistrictsToKeep) / (getBuiltDistricts().size() + 1)
+        double defaultProfitability = districtPropertyGain(district, District::numberOfDistrictsToDraw, this::numberOfDistrictsToDraw) / (getNumberOfBuiltDistricts() + 1)
+                + districtPropertyGain(district, District::numberOfDistrictsToKeep, this::numberOfDistrictsToKeep) / (getNumberOfBuiltDistricts() + 1)
                 + bonusProfitability(district);
         if (differenceOfDistrictsWithFirst() >= 3) {
             return 1.0 / (district.getCost() << 2) + defaultProfitability;
@@ -69,14 +69,14 @@ public class DiscreetBot extends Bot {
      * @param district the current district
      */
     private double bonusProfitability(District district) {
-        return (getBuiltDistricts().size() * 2 + 1.0) / (getBuiltDistricts().stream().filter(district1 -> district1.getColor() == district.getColor()).count() + 1 << 2);
+        return (getNumberOfBuiltDistricts() * 2 + 1.0) / (getNumberOfBuiltDistricts(district.getColor()) + 1 << 2);
     }
 
     /**
      * Detects if the discreet bot should try to attempt a final rush
      */
     protected boolean tryFinalRush() {
-        var numberOfDistrictLeftToBuild = getNumberOfDistrictsToEnd() - getBuiltDistricts().size();
+        var numberOfDistrictLeftToBuild = getNumberOfDistrictsToEnd() - getNumberOfBuiltDistricts();
         return getHandSize() >= 1
                 && numberOfDistrictLeftToBuild <= 3
                 && numberOfDistrictLeftToBuild > 1
@@ -84,7 +84,7 @@ public class DiscreetBot extends Bot {
     }
 
     protected int differenceOfDistrictsWithFirst() {
-        Optional<IPlayer> firstPlayer = getPlayers().stream().max(Comparator.comparingInt(player -> player.getBuiltDistricts().size()));
-        return firstPlayer.map(iPlayer -> iPlayer.getBuiltDistricts().size() - getBuiltDistricts().size()).orElse(-1);
+        Optional<IPlayer> firstPlayer = getPlayers().stream().max(Comparator.comparingInt(player -> player.getNumberOfBuiltDistricts()));
+        return firstPlayer.map(iPlayer -> iPlayer.getNumberOfBuiltDistricts() - getNumberOfBuiltDistricts()).orElse(-1);
     }
 }
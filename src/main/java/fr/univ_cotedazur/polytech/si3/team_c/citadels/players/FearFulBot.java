@@ -111,10 +111,10 @@ public class FearFulBot extends Bot {
 
     @Override
     protected double districtProfitability(District district) {
-        if (getBuiltDistricts().contains(district)) return -1; // We can't build the same district twice
+        if (hasBuiltDistrict(district)) return -1; // We can't build the same district twice
         return (district.getPoint() - 3) * 0.35 // we subtract 3 to the number of points, to have a negative profitability if the district gives 1 or 2 points
-                + districtPropertyGain(district, District::numberOfDistrictsToDraw, this::numberOfDistrictsToDraw) / (getBuiltDistricts().size() + 1)
-                + districtPropertyGain(district, District::numberOfDistrictsToKeep, this::numberOfDistrictsToKeep) / (getBuiltDistricts().size() + 1)
+                + districtPropertyGain(district, District::numberOfDistrictsToDraw, this::numberOfDistrictsToDraw) / (getNumberOfBuiltDistricts() + 1)
+                + districtPropertyGain(district, District::numberOfDistrictsToKeep, this::numberOfDistrictsToKeep) / (getNumberOfBuiltDistricts() + 1)
                 + (district.isDestructible() ? 0 : 3);
     }
 
@@ -126,7 +126,7 @@ public class FearFulBot extends Bot {
      * @return true if the player could destroy the given district and false else
      */
     protected boolean couldDestroy(District district, IPlayer player) {
-        return district.isDestructible() && player.getCoins() + 2 + player.getBuiltDistricts().stream().filter(district1 -> district1.getColor() == Colors.RED).count() >= district.getCost() - 1;
+        return district.isDestructible() && player.getCoins() + 2 + player.getNumberOfBuiltDistricts(Colors.RED) >= district.getCost() - 1;
     }
 
     /**
@@ -147,8 +147,8 @@ public class FearFulBot extends Bot {
      */
     protected double possibleKill(List<IPlayer> players) {
         var mostDangerous = getMostDangerousPlayersByBuiltDistricts(players);
-        int numberOfPoint = getBuiltDistricts().stream().mapToInt(District::getPoint).sum();
-        return (double) players.size() - mostDangerous.stream().takeWhile(iPlayer -> iPlayer.getBuiltDistricts().stream().mapToInt(District::getPoint).sum() >= numberOfPoint).toList().size();
+        int numberOfPoint = getDistrictsScore();
+        return (double) players.size() - mostDangerous.stream().takeWhile(iPlayer -> iPlayer.getDistrictsScore() >= numberOfPoint).toList().size();
     }
 
     /**
@@ -3,11 +3,14 @@ package fr.univ_cotedazur.polytech.si3.team_c.citadels.players;
 import fr.univ_cotedazur.polytech.si3.team_c.citadels.Character;
 import fr.univ_cotedazur.polytech.si3.team_c.citadels.*;
 
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.util.AbstractMap.SimpleEntry;
 import java.util.*;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
-import java.util.function.Predicate;
+import java.util.random.RandomGenerator;
 
 /**
  * A player (human or robot)
@@ -18,10 +21,57 @@ public abstract class Player implements IPlayer {
     private static final int INCOME = 2;
     private static final int NUMBER_OF_DISTRICTS_TO_DRAW = 2;
     private static final int NUMBER_OF_DISTRICTS_TO_KEEP = 1;
+    private static final Colors[] COLORS = Colors.values();
+    /**
+     * For each color bit, the sets of colors (as bits of a bitset indexed by color masks) that don't contain the color
+     */
+    private static final int[] SETS_WITHOUT_COLOR = {0x55555555, 0x33333333, 0x0F0F0F0F, 0x00FF00FF, 0x0000FFFF};
+    /**
+     * The methods asking for a decision which may be answered later
+     */
+    private static final List<Method> REQUESTS = Arrays.stream(Player.class.getDeclaredMethods())
+            .filter(method -> Modifier.isPublic(method.getModifiers()) && method.getReturnType() == CompletableFuture.class)
+            .toList();
+    /**
+     * Whether the players of a class override one of the requests, so that they may answer later
+     */
+    private static final ClassValue<Boolean> ASYNCHRONOUS = new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            for (Method request : REQUESTS) {
+                try {
+                    if (type.getMethod(request.getName(), request.getParameterTypes()).getDeclaringClass() != Player.class)
+                        return true;
+                } catch (NoSuchMethodException e) {
+                    throw new IllegalStateException("A public method can't be missing from a subclass", e);
+                }
+            }
+            return false;
+        }
+    };
     private final String name;
     private boolean gameEnder = false;
     private int coins;
-    private final Map<Integer, List<District>> builtDistricts;
+    /**
+     * The types of the built districts, as a bitmask of their ids in the catalog (a district can't be built twice)
+     */
+    private long builtTypes;
+    private District[] builtDistricts = new District[DistrictCatalog.numberOfTypes()];
+    private int[] turnOfBuild = new int[DistrictCatalog.numberOfTypes()];
+    /**
+     * The type ids of the built districts, ordered by turn of build
+     */
+    private int[] buildOrder = new int[DistrictCatalog.numberOfTypes()];
+    /**
+     * The ids of the types of district that aren't in the catalog (created by hand), following the ids of the catalog
+     */
+    private Map<String, Integer> foreignTypes;
+    private int numberOfBuiltDistricts;
+    private final int[] colorMatches = new int[COLORS.length];
+    private final int[] colorCounts = new int[COLORS.length];
+    private int districtsScore;
+    private int numberOfDestructibleDistricts;
+    private List<District> builtDistrictsView;
     private Map<SufferedActions, IPlayer> sufferedActions;
     private final ArrayList<District> handDistricts;
     private Character character;
@@ -32,13 +82,14 @@ public abstract class Player implements IPlayer {
     private boolean hasCrown;
 
     private int numberOfDistrictsToEnd = 8;
+    private final boolean asynchronous;
 
     protected Player(String name, int coins, List<District> districts) {
         this.name = name;
+        asynchronous = ASYNCHRONOUS.get(getClass());
         this.coins = coins;
         handDistricts = new ArrayList<>(districts);
-        actionSet = new HashSet<>(List.of(Action.INCOME, Action.DRAW, Action.BUILD));
-        builtDistricts = new HashMap<>();
+        actionSet = EnumSet.of(Action.INCOME, Action.DRAW, Action.BUILD);
         sufferedActions = new EnumMap<>(SufferedActions.class);
         players = Collections::emptyList;
         hasCrown = false;
@@ -114,6 +165,15 @@ public abstract class Player implements IPlayer {
      */
     public abstract District cardToDiscard();
 
+    /**
+     * Asks the player which card to discard, the game waiting for the answer without blocking its thread
+     *
+     * @return The card that the player chose to discard, at once by default
+     */
+    public CompletableFuture<District> requestCardToDiscard() {
+        return CompletableFuture.completedFuture(cardToDiscard());
+    }
+
     /**
      * Add some coins to the player "wallet"
      *
@@ -129,32 +189,64 @@ public abstract class Player implements IPlayer {
      * @param color The color that the districts need to match
      */
     protected int quantityOfColorBuilt(Colors color) {
-        return (int) getBuiltDistricts().stream().filter(district -> district.matchColor(color)).count();
+        return colorMatches[color.ordinal()];
     }
 
     /**
      * Gets all the districts that the player built (and that haven't been destroyed)
+     * The list is only created when asked, and kept until the player builds or loses a district: it is a read-only view,
+     * to be copied by a caller who wants to change it
      */
     public List<District> getBuiltDistricts() {
-        return new ArrayList<>(builtDistricts.values().stream().flatMap(List::stream).toList()) {
-            @Override
-            public String toString() {
-                if (isEmpty()) return "\n\tNo district built";
-                StringBuilder stringBuilder = new StringBuilder();
-                for (District d : this) stringBuilder.append("\n\t").append(d);
-                return stringBuilder.toString();
-            }
-        };
+        if (builtDistrictsView == null) {
+            District[] districts = new District[numberOfBuiltDistricts];
+            for (int i = 0; i < numberOfBuiltDistricts; i++) districts[i] = builtDistricts[buildOrder[i]];
+            builtDistrictsView = new BuiltDistricts(districts);
+        }
+        return builtDistrictsView;
+    }
+
+    /**
+     * @return the types of the built districts, as a bitmask of their ids in the {@link DistrictCatalog}
+     * (the types that aren't in the catalog having the next bits, in the order the player built them first)
+     */
+    public long getBuiltDistrictTypes() {
+        return builtTypes;
+    }
+
+    @Override
+    public int getNumberOfBuiltDistricts() {
+        return numberOfBuiltDistricts;
+    }
+
+    @Override
+    public int getNumberOfBuiltDistricts(Colors color) {
+        return colorCounts[color.ordinal()];
+    }
+
+    @Override
+    public boolean hasBuiltDistrict(District district) {
+        int type = typeId(district);
+        return type >= 0 && (builtTypes & 1L << type) != 0;
     }
 
     /**
      * Gets all the destroyable districts that the player built
      */
     public List<District> getDestroyableDistricts() {
-        return character != null && character.canHaveADistrictDestroyed() && getBuiltDistricts().size() < getNumberOfDistrictsToEnd() ?
+        return canHaveADistrictDestroyed() ?
                 getBuiltDistricts().stream().filter(District::isDestructible).toList() : Collections.emptyList();
     }
 
+    @Override
+    public int getNumberOfDestroyableDistricts() {
+        return canHaveADistrictDestroyed() ? numberOfDestructibleDistricts : 0;
+    }
+
+    private boolean canHaveADistrictDestroyed() {
+        return character != null && character.canHaveADistrictDestroyed() && numberOfBuiltDistricts < getNumberOfDistrictsToEnd();
+    }
+
     /**
      * Gets the amount of cards the player have in hand
      */
@@ -193,14 +285,57 @@ public abstract class Player implements IPlayer {
      */
     public boolean buildDistrict(District district, int turn) {
         if (!handDistricts.contains(district)) return false;
-        if (getBuiltDistricts().contains(district)) return false;
+        if (hasBuiltDistrict(district)) return false;
         if (!pay(district.getCost())) return false;
         handDistricts.remove(district);
-        builtDistricts.putIfAbsent(turn, new ArrayList<>());
-        builtDistricts.get(turn).add(district);
+        addBuiltDistrict(district, turn);
         return true;
     }
 
+    /**
+     * @param district a district, from the catalog or not
+     * @return the id of the type of the district, or -1 if the catalog doesn't know it and the player never built it
+     */
+    private int typeId(District district) {
+        int type = DistrictCatalog.typeId(district);
+        if (type >= 0 || foreignTypes == null) return type;
+        return foreignTypes.getOrDefault(district.getName(), -1);
+    }
+
+    /**
+     * Gives an id to a type of district that isn't in the catalog, the first time the player builds it
+     *
+     * @throws IllegalStateException if the player built more types of district than the bitmask can hold
+     */
+    private int foreignTypeId(District district) {
+        if (foreignTypes == null) foreignTypes = new HashMap<>();
+        int type = DistrictCatalog.numberOfTypes() + foreignTypes.size();
+        if (type >= Long.SIZE) throw new IllegalStateException("A player can't build more than " + Long.SIZE + " types of district");
+        foreignTypes.put(district.getName(), type);
+        if (type >= builtDistricts.length) {
+            builtDistricts = Arrays.copyOf(builtDistricts, type + 1);
+            turnOfBuild = Arrays.copyOf(turnOfBuild, type + 1);
+            buildOrder = Arrays.copyOf(buildOrder, type + 1);
+        }
+        return type;
+    }
+
+    /**
+     * Adds a district to the built ones, after the districts built before or during the same turn
+     */
+    private void addBuiltDistrict(District district, int turn) {
+        int type = typeId(district);
+        if (type < 0) type = foreignTypeId(district);
+        int position = numberOfBuiltDistricts++;
+        for (; position > 0 && turnOfBuild[buildOrder[position - 1]] > turn; position--)
+            buildOrder[position] = buildOrder[position - 1];
+        buildOrder[position] = type;
+        builtTypes |= 1L << type;
+        builtDistricts[type] = district;
+        turnOfBuild[type] = turn;
+        updateTotals(district, 1);
+    }
+
     /**
      * The player wants to destroy a district
      *
@@ -209,20 +344,45 @@ public abstract class Player implements IPlayer {
      */
     public abstract SimpleEntry<IPlayer, District> destroyDistrict(List<IPlayer> players);
 
+    /**
+     * Asks the player which district to destroy, the game waiting for the answer without blocking its thread
+     *
+     * @param players List of players whose districts can be destroyed
+     * @return the district to be destroyed, at once by default
+     */
+    public CompletableFuture<SimpleEntry<IPlayer, District>> requestDistrictToDestroy(List<IPlayer> players) {
+        return CompletableFuture.completedFuture(destroyDistrict(players));
+    }
+
+    /**
+     * Updates the running totals of the built districts
+     *
+     * @param district the district built or removed
+     * @param delta    1 if the district has been built, -1 if it has been removed
+     */
+    private void updateTotals(District district, int delta) {
+        for (Colors color : COLORS) if (district.matchColor(color)) colorMatches[color.ordinal()] += delta;
+        colorCounts[district.getColor().ordinal()] += delta;
+        districtsScore += delta * district.getPoint();
+        if (district.isDestructible()) numberOfDestructibleDistricts += delta;
+        builtDistrictsView = null;
+    }
+
     /**
      * The player removes a district from his built district
      *
      * @param district the district to remove
      */
     public void removeDistrictFromDistrictBuilt(District district) {
-        for (Map.Entry<Integer, List<District>> mapEntry : builtDistricts.entrySet()) {
-            if (mapEntry.getValue().contains(district)) {
-                List<District> newDistrictList = mapEntry.getValue();
-                newDistrictList.remove(district);
-                mapEntry.setValue(newDistrictList);
-                break;
-            }
-        }
+        if (!hasBuiltDistrict(district)) return;
+        int type = typeId(district);
+        int position = 0;
+        while (buildOrder[position] != type) position++;
+        System.arraycopy(buildOrder, position + 1, buildOrder, position, --numberOfBuiltDistricts - position);
+        builtTypes &= ~(1L << type);
+        District removed = builtDistricts[type];
+        builtDistricts[type] = null;
+        updateTotals(removed, -1);
     }
 
     /**
@@ -254,6 +414,33 @@ public abstract class Player implements IPlayer {
         return nextAction(getActionSet());
     }
 
+    /**
+     * Asks the player to choose a character, the game waiting for the answer without blocking its thread
+     * A player relying on a slow or remote decision maker completes the future once he has decided
+     *
+     * @param characterManager to access the available characters and the shown characters
+     * @return The character that has been chosen, at once by default
+     */
+    public CompletableFuture<Character> requestCharacter(CharacterManager characterManager) {
+        return CompletableFuture.completedFuture(pickCharacter(characterManager));
+    }
+
+    /**
+     * Asks the player which action should be done, the game waiting for the answer without blocking its thread
+     *
+     * @return The action chosen by the player to be done, at once by default
+     */
+    public CompletableFuture<Action> requestNextAction() {
+        return CompletableFuture.completedFuture(nextAction());
+    }
+
+    /**
+     * @return true if the player overrides a request to answer it later, false if the game can call the decisions directly
+     */
+    public boolean decidesAsynchronously() {
+        return asynchronous;
+    }
+
     /**
      * Ask the player which action should be done (will be asked until there's no more actions to do). The action will be chosen in the Set in entry
      *
@@ -280,6 +467,17 @@ public abstract class Player implements IPlayer {
      */
     public abstract List<District> pickDistrictsFromDeck(List<District> drawnCards, int amountToChoose);
 
+    /**
+     * Asks the player to choose n districts from the drawn ones, the game waiting for the answer without blocking its thread
+     *
+     * @param drawnCards     The list of the drawn districts
+     * @param amountToChoose The amount of districts to choose
+     * @return The chosen districts, at once by default
+     */
+    public CompletableFuture<List<District>> requestDistrictsFromDeck(List<District> drawnCards, int amountToChoose) {
+        return CompletableFuture.completedFuture(pickDistrictsFromDeck(drawnCards, amountToChoose));
+    }
+
     /**
      * Asks the player to choose district(s) from his hand to be build
      *
@@ -289,6 +487,16 @@ public abstract class Player implements IPlayer {
         return pickDistrictsToBuild(getCharacter().orElseThrow().numberOfDistrictToBuild(), turn);
     }
 
+    /**
+     * Asks the player to choose district(s) from his hand to be build, the game waiting for the answer without blocking its thread
+     *
+     * @param turn the current turn of the Game
+     * @return The chosen districts, at once by default
+     */
+    public CompletableFuture<List<District>> requestDistrictsToBuild(int turn) {
+        return CompletableFuture.completedFuture(pickDistrictsToBuild(turn));
+    }
+
     /**
      * Asks the player to choose district(s) from his hand to be build
      *
@@ -301,17 +509,9 @@ public abstract class Player implements IPlayer {
     /**
      * @return the current score given by the districts of the player
      */
+    @Override
     public int getDistrictsScore() {
-        return getBuiltDistricts().stream().mapToInt(District::getPoint).sum();
-    }
-
-    /**
-     * @param lastTurn the number of the last turn
-     * @return true if the district was built in the last turn
-     */
-    private boolean builtInTheLastTurn(District district, int lastTurn) {
-        if (builtDistricts.containsKey(lastTurn)) return builtDistricts.get(lastTurn).contains(district);
-        return false;
+        return districtsScore;
     }
 
     /**
@@ -320,20 +520,20 @@ public abstract class Player implements IPlayer {
      * @param lastTurn the number of the last turn
      **/
     public boolean allColorsInDistricts(int lastTurn) {
-        return allColorsInDistricts(lastTurn, getBuiltDistricts(), Collections.emptySet(), 0);
-    }
-
-    private boolean allColorsInDistricts(int lastTurn, List<District> builtDistricts, Set<Colors> selectedColors, int index) {
-        if (selectedColors.containsAll(Arrays.stream(Colors.values()).filter(Predicate.not(Colors.NONE::equals)).toList()))
-            return true;
-        if (index >= builtDistricts.size()) return false;
-        District district = builtDistricts.get(index);
-        List<Colors> colors = district.bonusColors(builtInTheLastTurn(district, lastTurn));
-        return colors.stream().anyMatch(color -> {
-            var colorsToTry = new HashSet<>(selectedColors);
-            colorsToTry.add(color);
-            return allColorsInDistricts(lastTurn, builtDistricts, colorsToTry, index + 1);
-        });
+        int reachableSets = 1; // The sets of colors that the districts can cover, as a bitset: at first only the empty set
+        for (int i = 0; i < numberOfBuiltDistricts; i++) {
+            int type = buildOrder[i];
+            int colors = builtDistricts[type].bonusColorsMask(turnOfBuild[type] == lastTurn);
+            int nextSets = colors == 0 ? reachableSets : 0;
+            for (int remainingColors = colors; remainingColors != 0; remainingColors &= remainingColors - 1) {
+                int color = Integer.lowestOneBit(remainingColors);
+                int setsWithoutColor = SETS_WITHOUT_COLOR[Integer.numberOfTrailingZeros(color)];
+                // Each set without the color gets it, the sets already having it are kept
+                nextSets |= (reachableSets & setsWithoutColor) << color | reachableSets & ~setsWithoutColor;
+            }
+            reachableSets = nextSets;
+        }
+        return (reachableSets & 1 << Colors.ALL_COLORS_MASK) != 0;
     }
 
     /**
@@ -344,7 +544,7 @@ public abstract class Player implements IPlayer {
         int score = getDistrictsScore();
         if (allColorsInDistricts(lastTurn)) score += 3;
         if (isGameEnder()) score += 4;
-        else if (getBuiltDistricts().size() >= getNumberOfDistrictsToEnd()) score += 2;
+        else if (numberOfBuiltDistricts >= getNumberOfDistrictsToEnd()) score += 2;
         return score;
     }
 
@@ -379,7 +579,7 @@ public abstract class Player implements IPlayer {
      * Creates a list of possible actions for a player, depending on the chosen character and the built districts.
      */
     public Set<Action> createActionSet() {
-        actionSet = new HashSet<>(List.of(Action.INCOME, Action.DRAW, Action.BUILD));
+        actionSet = EnumSet.of(Action.INCOME, Action.DRAW, Action.BUILD);
         getBuiltDistricts().forEach(district -> actionSet.addAll(district.getAction())); // Add the special action of each district if it has one
         actionSet.addAll(character.getAction()); // Add the special actions of the character
         return actionSet;
@@ -415,7 +615,7 @@ public abstract class Player implements IPlayer {
      * Note: Must not be called if the game has already been ended by another player
      */
     public boolean endsGame() {
-        if (getBuiltDistricts().size() >= getNumberOfDistrictsToEnd()) {
+        if (numberOfBuiltDistricts >= getNumberOfDistrictsToEnd()) {
             gameEnder = true;
             return true;
         }
@@ -436,6 +636,16 @@ public abstract class Player implements IPlayer {
      */
     public abstract Character chooseCharacterToRob(List<Character> characterList);
 
+    /**
+     * Asks the player to choose a character to rob, the game waiting for the answer without blocking its thread
+     *
+     * @param characterList the list of character the player can rob
+     * @return the character to rob, at once by default
+     */
+    public CompletableFuture<Character> requestCharacterToRob(List<Character> characterList) {
+        return CompletableFuture.completedFuture(chooseCharacterToRob(characterList));
+    }
+
     /**
      * Ask the player to choose a character to kill
      *
@@ -444,6 +654,16 @@ public abstract class Player implements IPlayer {
      */
     public abstract Character chooseCharacterToKill(List<Character> characterList);
 
+    /**
+     * Asks the player to choose a character to kill, the game waiting for the answer without blocking its thread
+     *
+     * @param characterList the list of character the player can kill
+     * @return the character to kill, at once by default
+     */
+    public CompletableFuture<Character> requestCharacterToKill(List<Character> characterList) {
+        return CompletableFuture.completedFuture(chooseCharacterToKill(characterList));
+    }
+
     /**
      * Asks the player to choose another player with whom to exchange his hand.
      *
@@ -452,6 +672,17 @@ public abstract class Player implements IPlayer {
      */
     public abstract IPlayer playerToExchangeCards(List<IPlayer> playerList);
 
+    /**
+     * Asks the player to choose another player with whom to exchange his hand, the game waiting for the answer without
+     * blocking its thread
+     *
+     * @param playerList List of players he can exchange with
+     * @return The player chosen for the exchange, at once by default
+     */
+    public CompletableFuture<IPlayer> requestPlayerToExchangeCards(List<IPlayer> playerList) {
+        return CompletableFuture.completedFuture(playerToExchangeCards(playerList));
+    }
+
     /**
      * Ask the player to choose cards to exchange with the deck
      *
@@ -459,6 +690,15 @@ public abstract class Player implements IPlayer {
      */
     public abstract List<District> chooseCardsToExchangeWithDeck();
 
+    /**
+     * Asks the player to choose cards to exchange with the deck, the game waiting for the answer without blocking its thread
+     *
+     * @return The list of cards he wants to exchange with the deck, at once by default
+     */
+    public CompletableFuture<List<District>> requestCardsToExchangeWithDeck() {
+        return CompletableFuture.completedFuture(chooseCardsToExchangeWithDeck());
+    }
+
     /**
      * Remove the cards of the player hand
      *
@@ -483,6 +723,17 @@ public abstract class Player implements IPlayer {
      **/
     public abstract boolean wantsToTakeADestroyedDistrict(District district);
 
+    /**
+     * Asks the player whether he wants to recover a district that has just been destroyed, the game waiting for the
+     * answer without blocking its thread
+     *
+     * @param district the destroyed district
+     * @return true if the player wants to take the district, at once by default
+     */
+    public CompletableFuture<Boolean> requestToTakeADestroyedDistrict(District district) {
+        return CompletableFuture.completedFuture(wantsToTakeADestroyedDistrict(district));
+    }
+
     public abstract void setPossibleCharacters(List<IPlayer> beforePlayers, CharacterManager characterManager);
 
     /**
@@ -535,6 +786,15 @@ public abstract class Player implements IPlayer {
         this.players = players;
     }
 
+    /**
+     * Gives to the player the random generator to use for its choices during the game
+     *
+     * @param random the random generator given by the game
+     */
+    public void setRandom(RandomGenerator random) {
+        // The choices of the player are not random by default
+    }
+
     /**
      * Sets the number of district to end the game
      *
@@ -554,7 +814,14 @@ public abstract class Player implements IPlayer {
     public void resetPlayer() {
         this.coins = 0;
         this.handDistricts.clear();
-        this.builtDistricts.clear();
+        this.builtTypes = 0;
+        Arrays.fill(this.builtDistricts, null);
+        this.numberOfBuiltDistricts = 0;
+        Arrays.fill(this.colorMatches, 0);
+        Arrays.fill(this.colorCounts, 0);
+        this.districtsScore = 0;
+        this.numberOfDestructibleDistricts = 0;
+        this.builtDistrictsView = null;
         this.sufferedActions.clear();
         this.character = null;
         this.actionSet.clear();
@@ -573,4 +840,33 @@ public abstract class Player implements IPlayer {
     public boolean hasCrown() {
         return hasCrown;
     }
+
+    /**
+     * Read-only view of the built districts, displayed one per line
+     */
+    private static class BuiltDistricts extends AbstractList<District> implements RandomAccess {
+        private final District[] districts;
+
+        BuiltDistricts(District[] districts) {
+            this.districts = districts;
+        }
+
+        @Override
+        public District get(int index) {
+            return districts[index];
+        }
+
+        @Override
+        public int size() {
+            return districts.length;
+        }
+
+        @Override
+        public String toString() {
+            if (isEmpty()) return "\n\tNo district built";
+            StringBuilder stringBuilder = new StringBuilder();
+            for (District d : this) stringBuilder.append("\n\t").append(d);
+            return stringBuilder.toString();
+        }
+    }
 }
@@ -4,15 +4,16 @@ import fr.univ_cotedazur.polytech.si3.team_c.citadels.Character;
 import fr.univ_cotedazur.polytech.si3.team_c.citadels.*;
 
 import java.util.*;
+import java.util.random.RandomGenerator;
 
 public class RandomBot extends Player {
-    private final Random random;
+    private RandomGenerator random;
 
     public RandomBot(String name, int coins, List<District> districts) {
-        this(name, coins, districts, new Random());
+        this(name, coins, districts, new SplittableRandom());
     }
 
-    protected RandomBot(String name, int coins, List<District> districts, Random random) {
+    protected RandomBot(String name, int coins, List<District> districts, RandomGenerator random) {
         super(name, coins, districts);
         this.random = random;
     }
@@ -21,6 +22,21 @@ public class RandomBot extends Player {
         this(name, 0, Collections.emptyList());
     }
 
+    @Override
+    public void setRandom(RandomGenerator random) {
+        this.random = random;
+    }
+
+    /**
+     * Shuffles a list with the random generator of the bot
+     *
+     * @param list the list to shuffle
+     */
+    private <T> void shuffle(List<T> list) {
+        for (int i = list.size() - 1; i > 0; i--)
+            Collections.swap(list, i, random.nextInt(i + 1));
+    }
+
     public <T> T randomElementFromList(List<T> list) {
         return (list.isEmpty()) ? null : list.get(random.nextInt(list.size()));
     }
@@ -41,7 +57,7 @@ public class RandomBot extends Player {
     @Override
     public AbstractMap.SimpleEntry<IPlayer, District> destroyDistrict(List<IPlayer> players) {
         List<IPlayer> destroyablePlayers = players.stream()
-                .filter(player -> !player.equals(this) && !player.getDestroyableDistricts().isEmpty())
+                .filter(player -> !player.equals(this) && player.getNumberOfDestroyableDistricts() > 0)
                 .toList();
 
         if (destroyablePlayers.isEmpty()) return null;
@@ -70,7 +86,7 @@ public class RandomBot extends Player {
     public List<District> pickDistrictsFromDeck(List<District> drawnCards, int amountToChoose) {
         if (drawnCards.isEmpty()) return Collections.emptyList();
         List<District> pickedDistricts = new ArrayList<>(drawnCards);
-        Collections.shuffle(pickedDistricts);
+        shuffle(pickedDistricts);
         pickedDistricts = pickedDistricts.subList(0, Math.min(amountToChoose, pickedDistricts.size()));
         pickedDistricts.forEach(this::addDistrictToHand);
         return pickedDistricts;
@@ -80,7 +96,7 @@ public class RandomBot extends Player {
     protected List<District> pickDistrictsToBuild(int maxAmountToChoose, int turn) {
         List<District> districts = new ArrayList<>(getHandDistricts());
         List<District> toBuild = new ArrayList<>();
-        Collections.shuffle(districts);
+        shuffle(districts);
         Iterator<District> districtIterator = districts.iterator();
         while (districtIterator.hasNext() && maxAmountToChoose > 0) {
             District curDistrict = districtIterator.next();
@@ -113,7 +129,7 @@ public class RandomBot extends Player {
         if (getHandSize() == 1) return new ArrayList<>(getHandDistricts());
         int numberToExchange = random.nextInt(1, getHandSize());
         List<District> shuffledDistricts = getHandDistricts();
-        Collections.shuffle(shuffledDistricts);
+        shuffle(shuffledDistricts);
         return shuffledDistricts.subList(0, numberToExchange);
     }
 
@@ -138,6 +154,6 @@ public class RandomBot extends Player {
 
     @Override
     public int hashCode() {
-        return Objects.hash(super.hashCode(), random);
+        return super.hashCode();
     }
 }
@@ -210,7 +210,7 @@ public class RichardBot extends Bot {
      */
     private List<IPlayer> getPlayersAbleToWin(Character character) {
         if (character == null) return Collections.emptyList();
-        return getPlayers().stream().filter(iPlayer -> iPlayer.getBuiltDistricts().size() + character.numberOfDistrictToBuild() >= getNumberOfDistrictsToEnd()).toList();
+        return getPlayers().stream().filter(iPlayer -> iPlayer.getNumberOfBuiltDistricts() + character.numberOfDistrictToBuild() >= getNumberOfDistrictsToEnd()).toList();
     }
 
     /**
@@ -218,7 +218,7 @@ public class RichardBot extends Bot {
      *
      */
     private boolean iAmFirst() {
-        return getPlayers().stream().allMatch(iPlayer -> iPlayer.getBuiltDistricts().stream().mapToInt(District::getPoint).sum() < getBuiltDistricts().stream().mapToInt(District::getPoint).sum());
+        return getPlayers().stream().allMatch(iPlayer -> iPlayer.getDistrictsScore() < getDistrictsScore());
     }
 
     /**
@@ -262,7 +262,7 @@ public class RichardBot extends Bot {
     private boolean couldBecomeUntouchable(Character character, IPlayer player) {
         return player.getCoins() >= 4
                 && player.getHandSize() >= character.numberOfDistrictToBuild() - (character.startTurnAction().equals(Action.BEGIN_DRAW) ? 2 : 0)
-                && player.getBuiltDistricts().size() >= getNumberOfDistrictsToEnd() - character.numberOfDistrictToBuild();
+                && player.getNumberOfBuiltDistricts() >= getNumberOfDistrictsToEnd() - character.numberOfDistrictToBuild();
     }
 
 
@@ -272,8 +272,8 @@ public class RichardBot extends Bot {
      */
     private boolean buildPenultimateDistrict() {
         return !getPlayers().stream().filter(player ->
-                player.getBuiltDistricts().size() == getNumberOfDistrictsToEnd() - 2
-                        && player.getBuiltDistricts().size() >= this.getBuiltDistricts().size()).toList().isEmpty();
+                player.getNumberOfBuiltDistricts() == getNumberOfDistrictsToEnd() - 2
+                        && player.getNumberOfBuiltDistricts() >= this.getNumberOfBuiltDistricts()).toList().isEmpty();
     }
 
     /**
@@ -281,7 +281,7 @@ public class RichardBot extends Bot {
      *
      */
     private boolean iWillBuildPenultimateDistrict() {
-        return getBuiltDistricts().size() == getNumberOfDistrictsToEnd() - 2;
+        return getNumberOfBuiltDistricts() == getNumberOfDistrictsToEnd() - 2;
     }
 
     /**
@@ -0,0 +1,120 @@
+package fr.univ_cotedazur.polytech.si3.team_c.citadels.profiling;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Text file of the measures of a {@link BenchmarkSuite}, kept in the repository to compare the next runs with it
+ * Each line holds a metric of a case: key=mean;standard deviation;runs, the lines starting with # being comments
+ *
+ * @author Team C
+ */
+public class BenchmarkBaseline {
+    /**
+     * The relative change under which a difference isn't reported, by metric: the allocations hardly vary between
+     * two launches, while the speed depends on the state of the machine and the latencies on the timer too
+     */
+    private static final double MINIMUM_CHANGE_OF_ALLOCATIONS = 0.03;
+    private static final double MINIMUM_CHANGE_OF_SPEED = 0.10;
+    private static final double MINIMUM_CHANGE_OF_LATENCY = 0.25;
+
+    private BenchmarkBaseline() {
+    }
+
+    private static double minimumChange(String key) {
+        if (key.endsWith(BenchmarkSuite.BYTES_PER_GAME)) return MINIMUM_CHANGE_OF_ALLOCATIONS;
+        if (key.endsWith(BenchmarkSuite.GAMES_PER_SECOND)) return MINIMUM_CHANGE_OF_SPEED;
+        return MINIMUM_CHANGE_OF_LATENCY;
+    }
+
+    /**
+     * @param file the baseline file
+     * @return the measures of the baseline, by key, in the order of the file
+     */
+    public static Map<String, Measure> load(Path file) throws IOException {
+        Map<String, Measure> measures = new LinkedHashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                if (line.isBlank() || line.startsWith("#")) continue;
+                int separator = line.indexOf('=');
+                String[] values = line.substring(separator + 1).split(";");
+                if (separator < 0 || values.length != 3) throw new IOException("Invalid line of " + file + ": " + line);
+                measures.put(line.substring(0, separator), new Measure(Double.parseDouble(values[0]),
+                        Double.parseDouble(values[1]), Integer.parseInt(values[2])));
+            }
+        }
+        return measures;
+    }
+
+    /**
+     * Writes the measures in a baseline file, replacing the previous one
+     *
+     * @param file     the baseline file
+     * @param measures the measures, by key
+     * @param comment  the description of the run (machine, date...), written at the top of the file
+     */
+    public static void save(Path file, Map<String, Measure> measures, String comment) throws IOException {
+        StringBuilder content = new StringBuilder();
+        comment.lines().forEach(line -> content.append("# ").append(line).append('\n'));
+        measures.forEach((key, measure) -> content.append(key).append('=').append(measure.mean()).append(';')
+                .append(measure.standardDeviation()).append(';').append(measure.runs()).append('\n'));
+        if (file.getParent() != null) Files.createDirectories(file.getParent());
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Compares the measures of a run with the baseline, only reporting the differences larger than the noise
+     *
+     * @param baseline the measures of the baseline
+     * @param measures the measures of the run
+     * @return the report of the comparison, ending with the overall change of speed and the number of better,
+     * worse and unchanged metrics
+     */
+    public static String compare(Map<String, Measure> baseline, Map<String, Measure> measures) {
+        StringBuilder report = new StringBuilder(String.format(Locale.ROOT,
+                "Comparison with the baseline (differences larger than the noise and than %.0f%% of the allocations, %.0f%% of the speed, %.0f%% of the latencies) :%n",
+                MINIMUM_CHANGE_OF_ALLOCATIONS * 100, MINIMUM_CHANGE_OF_SPEED * 100, MINIMUM_CHANGE_OF_LATENCY * 100));
+        int better = 0;
+        int worse = 0;
+        int unchanged = 0;
+        int added = 0;
+        double logSpeedRatios = 0;
+        int speeds = 0;
+        for (Map.Entry<String, Measure> entry : measures.entrySet()) {
+            Measure before = baseline.get(entry.getKey());
+            Measure after = entry.getValue();
+            if (before == null) {
+                added++;
+                continue;
+            }
+            if (entry.getKey().endsWith(BenchmarkSuite.GAMES_PER_SECOND)) {
+                logSpeedRatios += Math.log(after.mean() / before.mean());
+                speeds++;
+            }
+            if (!after.differsFrom(before, minimumChange(entry.getKey()))) {
+                unchanged++;
+                continue;
+            }
+            double change = after.changeFrom(before);
+            // Only the games per second are better when they increase
+            boolean improved = entry.getKey().endsWith(BenchmarkSuite.GAMES_PER_SECOND) == change > 0;
+            if (improved) better++;
+            else worse++;
+            report.append(String.format(Locale.ROOT, "\t%s: %.1f -> %.1f (%+.1f%%, %s)%n", entry.getKey(),
+                    before.mean(), after.mean(), change * 100, improved ? "better" : "worse"));
+        }
+        long missing = baseline.keySet().stream().filter(key -> !measures.containsKey(key)).count();
+        // A change of all the cases at once rather comes from the machine, or from a change of the whole engine
+        if (speeds > 0)
+            report.append(String.format(Locale.ROOT, "Overall speed (geometric mean of the cases): %+.1f%%%n",
+                    (Math.exp(logSpeedRatios / speeds) - 1) * 100));
+        return report.append(better).append(" better, ").append(worse).append(" worse, ").append(unchanged)
+                .append(" unchanged, ").append(added).append(" new, ").append(missing).append(" missing").toString();
+    }
+}
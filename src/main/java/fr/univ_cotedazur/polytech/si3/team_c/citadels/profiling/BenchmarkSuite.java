@@ -0,0 +1,149 @@
+package fr.univ_cotedazur.polytech.si3.team_c.citadels.profiling;
+
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.Game;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.events.Decision;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.players.*;
+
+import javax.naming.LimitExceededException;
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import java.util.function.ObjIntConsumer;
+import java.util.stream.Stream;
+
+/**
+ * Fixed suite of seeded games measuring the throughput of the engine, for every bot (and a mix of them) from 3 to 8 players
+ * Each case is played several times on the calling thread, to measure the games per second, the bytes allocated per game
+ * and the mean latency of each kind of decision, along with their noise
+ *
+ * @author Team C
+ */
+public class BenchmarkSuite {
+    /**
+     * The bot playing every seat of a case, or "Mixed" for one bot of each kind in turn
+     */
+    public static final List<String> BOTS = Stream.concat(Bots.KINDS.stream(), Stream.of("Mixed")).toList();
+    public static final int MINIMUM_PLAYERS = 3;
+    public static final int MAXIMUM_PLAYERS = 8;
+    public static final String GAMES_PER_SECOND = "games-per-second";
+    public static final String BYTES_PER_GAME = "bytes-per-game";
+    public static final String NANOSECONDS_PER_DECISION = "ns-per-";
+    private static final long SEED = 0x5EED;
+    /**
+     * The number of decisions of a kind a run must have to measure their latency (rarer ones are mostly noise)
+     */
+    private static final int MINIMUM_DECISIONS = 100;
+    private final int gamesPerRun;
+    private final int runs;
+    private final com.sun.management.ThreadMXBean threads;
+
+    /**
+     * @param gamesPerRun the number of games of a run of a case
+     * @param runs        the number of runs of each case, after a warm-up run
+     */
+    public BenchmarkSuite(int gamesPerRun, int runs) {
+        if (gamesPerRun < 1 || runs < 1) throw new IllegalArgumentException("A case must be played at least once");
+        this.gamesPerRun = gamesPerRun;
+        this.runs = runs;
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean && bean.isThreadAllocatedMemorySupported()) {
+            bean.setThreadAllocatedMemoryEnabled(true);
+            threads = bean;
+        } else threads = null;
+    }
+
+    /**
+     * @param bots            the bots of the case
+     * @param numberOfPlayers the number of players of the case
+     * @param metric          the metric
+     * @return the key of a metric of a case, as in the baseline file
+     */
+    public static String key(String bots, int numberOfPlayers, String metric) {
+        return bots + "." + numberOfPlayers + "." + metric;
+    }
+
+    /**
+     * Plays all the cases of the suite
+     *
+     * @param progress called after each case with the bots and the number of players of the case
+     * @return the measures of each metric of each case, by key
+     */
+    public Map<String, Measure> run(ObjIntConsumer<String> progress) {
+        // Every case is played once before the measures, so that the first cases aren't measured on cold code
+        for (String bots : BOTS) {
+            for (int players = MINIMUM_PLAYERS; players <= MAXIMUM_PLAYERS; players++) {
+                playGames(bots, players, null);
+                playGames(bots, players, new DecisionProfiler());
+            }
+        }
+        Map<String, Measure> measures = new LinkedHashMap<>();
+        for (String bots : BOTS) {
+            for (int players = MINIMUM_PLAYERS; players <= MAXIMUM_PLAYERS; players++) {
+                measures.putAll(run(bots, players));
+                progress.accept(bots, players);
+            }
+        }
+        return measures;
+    }
+
+    /**
+     * Plays a case of the suite
+     *
+     * @param bots            the bots of the case (one of {@link #BOTS})
+     * @param numberOfPlayers the number of players of the case
+     * @return the measures of each metric of the case, by key
+     */
+    public Map<String, Measure> run(String bots, int numberOfPlayers) {
+        if (!BOTS.contains(bots)) throw new IllegalArgumentException("Unknown bots: " + bots);
+        playGames(bots, numberOfPlayers, null); // Warm-up of the case
+        double[] gamesPerSecond = new double[runs];
+        double[] bytesPerGame = new double[runs];
+        Map<Decision, double[]> latencies = new EnumMap<>(Decision.class);
+        for (Decision decision : Decision.values()) latencies.put(decision, new double[runs]);
+        for (int run = 0; run < runs; run++) {
+            long bytes = allocatedBytes();
+            long start = System.nanoTime();
+            playGames(bots, numberOfPlayers, null);
+            gamesPerSecond[run] = gamesPerRun * 1e9 / (System.nanoTime() - start);
+            bytesPerGame[run] = bytes < 0 ? Double.NaN : (allocatedBytes() - bytes) / (double) gamesPerRun;
+            // The decisions are measured apart, so that measuring them doesn't slow down the games measured above
+            DecisionProfiler profiler = new DecisionProfiler();
+            playGames(bots, numberOfPlayers, profiler);
+            for (Decision decision : Decision.values())
+                latencies.get(decision)[run] = profiler.getNumberOfDecisions(decision) < MINIMUM_DECISIONS ? Double.NaN : profiler.getMeanLatency(decision);
+        }
+        Map<String, Measure> measures = new LinkedHashMap<>();
+        measures.put(key(bots, numberOfPlayers, GAMES_PER_SECOND), Measure.of(gamesPerSecond));
+        Measure allocations = Measure.of(bytesPerGame);
+        if (allocations.runs() > 0) measures.put(key(bots, numberOfPlayers, BYTES_PER_GAME), allocations);
+        latencies.forEach((decision, values) -> {
+            Measure latency = Measure.of(values);
+            if (latency.runs() > 0)
+                measures.put(key(bots, numberOfPlayers, NANOSECONDS_PER_DECISION + decision.name()), latency);
+        });
+        return measures;
+    }
+
+    private long allocatedBytes() {
+        return threads == null ? -1 : threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * Plays the games of a run, which are the same at each run of a case
+     */
+    private void playGames(String bots, int numberOfPlayers, DecisionProfiler profiler) {
+        SplittableRandom seeds = new SplittableRandom(SEED + BOTS.indexOf(bots) * 16L + numberOfPlayers);
+        for (int i = 0; i < gamesPerRun; i++) {
+            Player[] players = new Player[numberOfPlayers];
+            for (int seat = 0; seat < numberOfPlayers; seat++) {
+                String bot = bots.equals("Mixed") ? Bots.KINDS.get(seat % Bots.KINDS.size()) : bots;
+                players[seat] = Bots.create(bot, bot + " " + seat);
+            }
+            Game game = new Game(seeds.nextLong(), numberOfPlayers, players);
+            game.setProfiler(profiler);
+            try {
+                game.start();
+            } catch (LimitExceededException e) {
+                // A stuck game is measured too
+            }
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package fr.univ_cotedazur.polytech.si3.team_c.citadels.profiling;
+
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.events.Decision;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.players.Player;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Measures the decisions of the players of the games it is given to, by type of bot and by kind of decision
+ * Each decision records its latency in a histogram and the CPU time of the thread making it, so the time spent
+ * by each bot is known even when the games are played by several threads
+ * A decision answered later is measured from the request to the answer, the CPU time being only the one of the request
+ * (the player thinks on his own threads)
+ *
+ * @author Team C
+ */
+public class DecisionProfiler {
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private final boolean cpuTimeSupported = THREADS.isCurrentThreadCpuTimeSupported();
+    private final Map<String, BotProfile> profiles = new ConcurrentHashMap<>();
+
+    /**
+     * The histograms and the CPU time of a type of bot
+     */
+    private static class BotProfile {
+        private final Map<Decision, LatencyHistogram> histograms = new EnumMap<>(Decision.class);
+        private final LongAdder cpuTime = new LongAdder();
+
+        BotProfile() {
+            // The histograms are all created up front, so that the map is only read afterwards
+            for (Decision decision : Decision.values()) histograms.put(decision, new LatencyHistogram());
+        }
+    }
+
+    /**
+     * Makes a decision of a player and measures it
+     *
+     * @param player   the player deciding
+     * @param decision the kind of decision
+     * @param choice   the call making the decision
+     * @return the choice of the player
+     */
+    public <T> T profile(Player player, Decision decision, Supplier<T> choice) {
+        long cpuStart = cpuTimeSupported ? THREADS.getCurrentThreadCpuTime() : 0;
+        long start = System.nanoTime();
+        T chosen = choice.get();
+        long latency = System.nanoTime() - start;
+        BotProfile profile = profile(player);
+        profile.histograms.get(decision).record(latency);
+        profile.cpuTime.add(cpuTimeSupported ? THREADS.getCurrentThreadCpuTime() - cpuStart : latency);
+        return chosen;
+    }
+
+    /**
+     * Asks a player for a decision he may make later, and measures it until he has answered
+     *
+     * @param player   the player deciding
+     * @param decision the kind of decision
+     * @param request  the call asking the player
+     * @return the answer of the player, completed once his decision is measured
+     */
+    public <T> CompletableFuture<T> profileRequest(Player player, Decision decision, Supplier<CompletableFuture<T>> request) {
+        long cpuStart = cpuTimeSupported ? THREADS.getCurrentThreadCpuTime() : 0;
+        long start = System.nanoTime();
+        CompletableFuture<T> answer = request.get();
+        BotProfile profile = profile(player);
+        profile.cpuTime.add(cpuTimeSupported ? THREADS.getCurrentThreadCpuTime() - cpuStart : System.nanoTime() - start);
+        return answer.whenComplete((chosen, failure) -> profile.histograms.get(decision).record(System.nanoTime() - start));
+    }
+
+    private BotProfile profile(Player player) {
+        return profiles.computeIfAbsent(botType(player), type -> new BotProfile());
+    }
+
+    private static String botType(Player player) {
+        return player.getClass().getSimpleName();
+    }
+
+    /**
+     * @param botType  the simple name of the class of the bot
+     * @param decision the kind of decision
+     * @return the latencies of the decisions of this kind made by the bots of this type (empty if there are none)
+     */
+    public LatencyHistogram getHistogram(String botType, Decision decision) {
+        BotProfile profile = profiles.get(botType);
+        return profile == null ? new LatencyHistogram() : profile.histograms.get(decision);
+    }
+
+    /**
+     * @param botType the simple name of the class of the bot
+     * @return the CPU time spent in the decisions of the bots of this type, in nanoseconds
+     */
+    public long getCpuTime(String botType) {
+        BotProfile profile = profiles.get(botType);
+        return profile == null ? 0 : profile.cpuTime.sum();
+    }
+
+    /**
+     * @param decision the kind of decision
+     * @return the number of decisions of this kind made by all the bots
+     */
+    public long getNumberOfDecisions(Decision decision) {
+        return profiles.values().stream().mapToLong(profile -> profile.histograms.get(decision).getCount()).sum();
+    }
+
+    /**
+     * @param decision the kind of decision
+     * @return the mean latency of the decisions of this kind made by all the bots, in nanoseconds (NaN if there are none)
+     */
+    public double getMeanLatency(Decision decision) {
+        long total = 0;
+        long count = 0;
+        for (BotProfile profile : profiles.values()) {
+            LatencyHistogram histogram = profile.histograms.get(decision);
+            total += histogram.getTotal();
+            count += histogram.getCount();
+        }
+        return count == 0 ? Double.NaN : total / (double) count;
+    }
+
+    /**
+     * @return the CPU time and the p50/p99/max latencies of each kind of decision, for each type of bot
+     */
+    public String report() {
+        StringBuilder report = new StringBuilder();
+        new TreeMap<>(profiles).forEach((type, profile) -> {
+            report.append(type).append(" decisions (CPU time: ")
+                    .append(profile.cpuTime.sum() / 1_000_000).append(" ms)\n");
+            profile.histograms.forEach((decision, histogram) -> {
+                long count = histogram.getCount();
+                if (count == 0) return;
+                report.append('\t').append(decision).append(": ").append(count)
+                        .append(" decision(s), p50 ").append(micros(histogram.percentile(0.5)))
+                        .append(", p99 ").append(micros(histogram.percentile(0.99)))
+                        .append(", max ").append(micros(histogram.getMax())).append('\n');
+            });
+        });
+        return report.toString();
+    }
+
+    private static String micros(long nanos) {
+        return String.format(Locale.ROOT, "%.1f µs", nanos / 1000.0);
+    }
+}
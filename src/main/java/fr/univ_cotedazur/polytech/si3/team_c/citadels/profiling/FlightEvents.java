@@ -0,0 +1,133 @@
+package fr.univ_cotedazur.polytech.si3.team_c.citadels.profiling;
+
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.Action;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.Card;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.players.Player;
+import jdk.jfr.*;
+
+/**
+ * Java Flight Recorder events of the phases of a game, identified by the seed of the game
+ * An event is only filled and committed when it is enabled in the recording, so they cost almost nothing otherwise:
+ * java -XX:StartFlightRecording:filename=games.jfr,settings=profile ... records them along with the allocations
+ *
+ * @author Team C
+ */
+public final class FlightEvents {
+    private static final String CATEGORY = "Citadels";
+
+    private FlightEvents() {
+    }
+
+    private static String characterOf(Player player) {
+        return player.getCharacter().map(Card::getName).orElse(null);
+    }
+
+    @Name("citadels.Game")
+    @Label("Game")
+    @Description("A whole game, from the distribution of the districts to the announcement of the winners")
+    @Category(CATEGORY)
+    public static final class GamePlayed extends Event {
+        @Label("Game")
+        @Description("The seed of the game")
+        long game;
+        @Label("Players")
+        int players;
+        @Label("Turns")
+        int turns;
+
+        public void commit(long game, int players, int turns) {
+            if (!shouldCommit()) return;
+            this.game = game;
+            this.players = players;
+            this.turns = turns;
+            commit();
+        }
+    }
+
+    @Name("citadels.Turn")
+    @Label("Turn")
+    @Description("A turn of a game, with the selection of the characters and the turns of the players")
+    @Category(CATEGORY)
+    public static final class TurnPlayed extends Event {
+        @Label("Game")
+        long game;
+        @Label("Turn")
+        int turn;
+
+        public void commit(long game, int turn) {
+            if (!shouldCommit()) return;
+            this.game = game;
+            this.turn = turn;
+            commit();
+        }
+    }
+
+    @Name("citadels.CharacterSelection")
+    @Label("Character Selection")
+    @Description("The players picking their character for the turn")
+    @Category(CATEGORY)
+    public static final class CharacterSelection extends Event {
+        @Label("Game")
+        long game;
+        @Label("Turn")
+        int turn;
+
+        public void commit(long game, int turn) {
+            if (!shouldCommit()) return;
+            this.game = game;
+            this.turn = turn;
+            commit();
+        }
+    }
+
+    @Name("citadels.PlayerTurn")
+    @Label("Player Turn")
+    @Description("The turn of a player, when his character is called")
+    @Category(CATEGORY)
+    public static final class PlayerTurn extends Event {
+        @Label("Game")
+        long game;
+        @Label("Turn")
+        int turn;
+        @Label("Player")
+        String player;
+        @Label("Character")
+        String character;
+
+        public void commit(long game, int turn, Player player) {
+            if (!shouldCommit()) return;
+            this.game = game;
+            this.turn = turn;
+            this.player = player.getName();
+            this.character = characterOf(player);
+            commit();
+        }
+    }
+
+    @Name("citadels.Action")
+    @Label("Action")
+    @Description("An action done by a player during his turn")
+    @Category(CATEGORY)
+    public static final class ActionDone extends Event {
+        @Label("Game")
+        long game;
+        @Label("Turn")
+        int turn;
+        @Label("Player")
+        String player;
+        @Label("Character")
+        String character;
+        @Label("Action")
+        String action;
+
+        public void commit(long game, int turn, Player player, Action action) {
+            if (!shouldCommit()) return;
+            this.game = game;
+            this.turn = turn;
+            this.player = player.getName();
+            this.character = characterOf(player);
+            this.action = action.name();
+            commit();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package fr.univ_cotedazur.polytech.si3.team_c.citadels.profiling;
+
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.Character;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.CharacterManager;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.Game;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.GameExecutor;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.players.Bot;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.players.Player;
+
+import javax.naming.LimitExceededException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Measures how a {@link GameExecutor} copes with many games in flight, whose players wait for a slow decision maker
+ * (an external service, a human...) each time they pick their character
+ * It gives the games per second and the heap taken by each game in flight, measured once the most games are in flight
+ *
+ * @author Team C
+ */
+public class InFlightBenchmark {
+    private static final long SEED = 0xF11E;
+    private static final int NUMBER_OF_PLAYERS = 4;
+    private final int numberOfGames;
+    private final long decisionLatencyMillis;
+
+    /**
+     * The measures of a runner
+     *
+     * @param runner               the kind of threads running the games
+     * @param games                the number of games played
+     * @param gamesPerSecond       the games played per second
+     * @param maxInFlight          the largest number of games played at the same time
+     * @param bytesPerInFlightGame the heap used by each game in flight (without the stacks of the platform threads, which are out of the heap)
+     */
+    public record Result(String runner, int games, double gamesPerSecond, int maxInFlight, long bytesPerInFlightGame) {
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%s threads: %.1f games per second, at most %d games in flight, %d bytes per game in flight",
+                    runner, gamesPerSecond, maxInFlight, bytesPerInFlightGame);
+        }
+    }
+
+    /**
+     * @param numberOfGames         the number of games to play
+     * @param decisionLatencyMillis the time the players wait before picking their character
+     */
+    public InFlightBenchmark(int numberOfGames, long decisionLatencyMillis) {
+        if (numberOfGames < 1 || decisionLatencyMillis < 0)
+            throw new IllegalArgumentException("At least one game must be played, without a negative latency");
+        this.numberOfGames = numberOfGames;
+        this.decisionLatencyMillis = decisionLatencyMillis;
+    }
+
+    /**
+     * Plays all the games on the executor
+     *
+     * @param executor the executor of the games
+     * @return the measures of the executor
+     */
+    public Result run(GameExecutor executor) throws InterruptedException {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        long heapBefore = memory.getHeapMemoryUsage().getUsed();
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        SplittableRandom seeds = new SplittableRandom(SEED);
+        long start = System.nanoTime();
+        CompletableFuture<?>[] games = new CompletableFuture<?>[numberOfGames];
+        for (int i = 0; i < numberOfGames; i++) {
+            long seed = seeds.nextLong();
+            // The game is created by its task, so that the games waiting for a thread don't take any memory
+            games[i] = executor.submit(() -> {
+                maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                Player[] players = new Player[NUMBER_OF_PLAYERS];
+                for (int seat = 0; seat < NUMBER_OF_PLAYERS; seat++) players[seat] = new SlowBot("Slow Bot " + seat, decisionLatencyMillis);
+                Game game = new Game(seed, NUMBER_OF_PLAYERS, players);
+                try {
+                    game.start();
+                } catch (LimitExceededException e) {
+                    // A stuck game is measured too
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+                return game;
+            });
+        }
+        // The heap is measured once the number of games in flight stops growing, while they wait for their decisions
+        CompletableFuture<Void> over = CompletableFuture.allOf(games);
+        long heapInFlight = -1;
+        int measuredInFlight = 0;
+        while (!over.isDone()) {
+            int current = maxInFlight.get();
+            Thread.sleep(Math.max(1, decisionLatencyMillis));
+            if (heapInFlight < 0 && current == maxInFlight.get() && inFlight.get() > 0) {
+                System.gc();
+                measuredInFlight = inFlight.get();
+                heapInFlight = memory.getHeapMemoryUsage().getUsed();
+            }
+        }
+        over.join();
+        double gamesPerSecond = numberOfGames * 1e9 / (System.nanoTime() - start);
+        long bytesPerGame = measuredInFlight == 0 ? 0 : Math.max(0, heapInFlight - heapBefore) / measuredInFlight;
+        return new Result(executor.isVirtual() ? "Virtual" : "Platform", numberOfGames, gamesPerSecond, maxInFlight.get(), bytesPerGame);
+    }
+
+    /**
+     * A bot waiting for its decision maker before picking its character
+     */
+    private static class SlowBot extends Bot {
+        private final long latencyMillis;
+
+        SlowBot(String name, long latencyMillis) {
+            super(name);
+            this.latencyMillis = latencyMillis;
+        }
+
+        @Override
+        public Character pickCharacter(CharacterManager characterManager) {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return super.pickCharacter(characterManager);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package fr.univ_cotedazur.polytech.si3.team_c.citadels.profiling;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of durations in nanoseconds, with a bucket per power of two, which can be filled by several threads
+ * The bucket i holds the durations in [2^(i-1), 2^i[, so a percentile is known within a factor of two, while the
+ * histogram takes a fixed amount of memory and a recording is a few atomic operations, without any lock
+ *
+ * @author Team C
+ */
+public class LatencyHistogram {
+    private static final int NUMBER_OF_BUCKETS = Long.SIZE + 1;
+    private final AtomicLongArray buckets = new AtomicLongArray(NUMBER_OF_BUCKETS);
+    private final AtomicLong max = new AtomicLong();
+    private final LongAdder total = new LongAdder();
+
+    /**
+     * @param nanos the duration to record (a negative duration counts as 0)
+     */
+    public void record(long nanos) {
+        long duration = Math.max(0, nanos);
+        buckets.incrementAndGet(Long.SIZE - Long.numberOfLeadingZeros(duration));
+        max.accumulateAndGet(duration, Math::max);
+        total.add(duration);
+    }
+
+    /**
+     * @return the number of recorded durations
+     */
+    public long getCount() {
+        long count = 0;
+        for (int i = 0; i < NUMBER_OF_BUCKETS; i++) count += buckets.get(i);
+        return count;
+    }
+
+    /**
+     * @return the sum of the recorded durations, in nanoseconds
+     */
+    public long getTotal() {
+        return total.sum();
+    }
+
+    /**
+     * @return the longest recorded duration, in nanoseconds
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * @param quantile the quantile, between 0 and 1 (0.5 for the median)
+     * @return the upper bound of the bucket holding the quantile, in nanoseconds (at most the max, 0 if nothing is recorded)
+     */
+    public long percentile(double quantile) {
+        if (quantile < 0 || quantile > 1) throw new IllegalArgumentException("The quantile must be between 0 and 1");
+        long[] counts = new long[NUMBER_OF_BUCKETS];
+        long count = 0;
+        for (int i = 0; i < NUMBER_OF_BUCKETS; i++) count += counts[i] = buckets.get(i);
+        if (count == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(quantile * count));
+        for (int i = 0; i < NUMBER_OF_BUCKETS; i++) {
+            rank -= counts[i];
+            if (rank <= 0) return Math.min(upperBound(i), getMax());
+        }
+        return getMax();
+    }
+
+    private static long upperBound(int bucket) {
+        return bucket >= Long.SIZE - 1 ? Long.MAX_VALUE : (1L << bucket) - 1;
+    }
+}
@@ -0,0 +1,65 @@
+package fr.univ_cotedazur.polytech.si3.team_c.citadels.profiling;
+
+/**
+ * A metric of the benchmark, measured over several runs
+ *
+ * @param mean              the mean over the runs
+ * @param standardDeviation the sample standard deviation over the runs, which gives the noise of the measure
+ * @param runs              the number of runs
+ * @author Team C
+ */
+public record Measure(double mean, double standardDeviation, int runs) {
+    /**
+     * The number of standard errors a difference must exceed to be reported
+     */
+    private static final double NOISE_FACTOR = 3;
+
+    /**
+     * @param values the value of each run (NaN values are ignored)
+     * @return the mean and the standard deviation of the values
+     */
+    public static Measure of(double... values) {
+        int runs = 0;
+        double mean = 0;
+        double squaredDeviations = 0;
+        for (double value : values) {
+            if (Double.isNaN(value)) continue;
+            runs++;
+            double delta = value - mean;
+            mean += delta / runs;
+            squaredDeviations += delta * (value - mean);
+        }
+        if (runs == 0) return new Measure(Double.NaN, Double.NaN, 0);
+        return new Measure(mean, runs > 1 ? Math.sqrt(squaredDeviations / (runs - 1)) : 0, runs);
+    }
+
+    /**
+     * @return the standard error of the mean
+     */
+    public double standardError() {
+        return runs == 0 ? Double.NaN : standardDeviation / Math.sqrt(runs);
+    }
+
+    /**
+     * @param baseline the same metric measured before
+     * @return the relative change from the baseline (0.1 for 10% more)
+     */
+    public double changeFrom(Measure baseline) {
+        return (mean - baseline.mean) / baseline.mean;
+    }
+
+    /**
+     * Tells whether the difference with the baseline is real, i.e. larger than the noise of both measures
+     * (in standard errors) and than the minimum relative change
+     * The minimum change covers the noise between two launches of the JVM, which the runs of a launch don't see
+     *
+     * @param baseline      the same metric measured before
+     * @param minimumChange the relative change under which a difference isn't real (0.1 for 10%)
+     */
+    public boolean differsFrom(Measure baseline, double minimumChange) {
+        if (runs == 0 || baseline.runs == 0) return false;
+        double difference = Math.abs(mean - baseline.mean);
+        double noise = NOISE_FACTOR * Math.hypot(standardError(), baseline.standardError());
+        return difference > noise && difference > minimumChange * Math.abs(baseline.mean);
+    }
+}
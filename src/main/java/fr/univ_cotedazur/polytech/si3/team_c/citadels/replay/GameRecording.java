@@ -0,0 +1,105 @@
+package fr.univ_cotedazur.polytech.si3.team_c.citadels.replay;
+
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.Character;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.*;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.events.Decision;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.events.GameEvent;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.events.GameEvent.*;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.events.GameListener;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.players.Player;
+
+import java.util.AbstractMap.SimpleEntry;
+import java.util.List;
+
+/**
+ * Records the decisions of the players of a game, to be appended to a replay file when the game is over
+ * Each decision is encoded as its kind and its number of values, followed by the values:
+ * the turn of a character, the ordinal of an action, the id of a district card in the catalog, the seat of a player or 0/1.
+ * The very card is recorded rather than its type, since the order in which two cards of the same type go back to the
+ * deck depends on which of them a player kept
+ *
+ * @author Team C
+ */
+public class GameRecording implements GameListener {
+    private final ReplayRecorder recorder;
+    private final int gameIndex;
+    private final long seed;
+    private final int numberOfPlayers;
+    private final List<Player> players;
+    private final VarIntWriter decisions = new VarIntWriter();
+    private int numberOfDecisions;
+    private boolean ended;
+
+    GameRecording(ReplayRecorder recorder, Game game, int gameIndex) {
+        this.recorder = recorder;
+        this.gameIndex = gameIndex;
+        this.seed = game.getSeed();
+        this.numberOfPlayers = game.getNumberOfPlayers();
+        this.players = game.getPlayerList();
+    }
+
+    @Override
+    public void onEvent(GameEvent event) {
+        if (event instanceof CharacterPicked picked) add(Decision.CHARACTER, picked.character());
+        else if (event instanceof ActionChosen chosen) add(Decision.ACTION, chosen.action());
+        else if (event instanceof DecisionMade decision) add(decision.decision(), decision.choice());
+        else if (event instanceof GameEnded) ended = true;
+    }
+
+    private void add(Decision decision, Object choice) {
+        numberOfDecisions++;
+        if (choice instanceof List<?> districts) {
+            header(decision, districts.size());
+            for (Object district : districts) decisions.writeVarInt(cardId((District) district));
+        } else if (choice instanceof SimpleEntry<?, ?> target) {
+            header(decision, 2);
+            decisions.writeVarInt(seatOf((IPlayer) target.getKey()));
+            decisions.writeVarInt(cardId((District) target.getValue()));
+        } else if (choice == null) {
+            header(decision, 0);
+        } else {
+            header(decision, 1);
+            decisions.writeVarInt(value(choice));
+        }
+    }
+
+    private int value(Object choice) {
+        if (choice instanceof District district) return cardId(district);
+        if (choice instanceof Character character) return character.getTurn();
+        if (choice instanceof Action action) return action.ordinal();
+        if (choice instanceof IPlayer player) return seatOf(player);
+        if (choice instanceof Boolean bool) return Boolean.TRUE.equals(bool) ? 1 : 0;
+        throw new IllegalArgumentException("Unknown choice: " + choice);
+    }
+
+    private static int cardId(District district) {
+        int id = DistrictCatalog.cardId(district);
+        if (id < 0) throw new IllegalArgumentException(district.getName() + " isn't a card of the catalog");
+        return id;
+    }
+
+    private void header(Decision decision, int numberOfValues) {
+        decisions.writeVarInt(decision.ordinal() | numberOfValues << 4);
+    }
+
+    private int seatOf(IPlayer player) {
+        for (int seat = 0; seat < players.size(); seat++) if (players.get(seat) == player) return seat;
+        throw new IllegalArgumentException(player.getName() + " doesn't play this game");
+    }
+
+    /**
+     * Appends the recording to the replay file, whether the game ended or got stuck
+     *
+     * @param game the recorded game
+     */
+    public void finish(Game game) {
+        VarIntWriter body = new VarIntWriter();
+        body.writeVarInt(game.getCurrentTurn());
+        body.writeVarInt(ended ? 0 : 1);
+        for (Player player : players) body.writeVarInt(player.getScore(game.getCurrentTurn()));
+        body.writeVarInt(numberOfDecisions);
+        body.writeAll(decisions);
+        recorder.append(gameIndex, seed, numberOfPlayers, players, body);
+        game.getEvents().unsubscribe(this);
+    }
+}
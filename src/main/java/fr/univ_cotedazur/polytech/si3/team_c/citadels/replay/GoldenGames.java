@@ -0,0 +1,196 @@
+package fr.univ_cotedazur.polytech.si3.team_c.citadels.replay;
+
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.Game;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.players.*;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.replay.ReplayRecord.RecordedDecision;
+
+import javax.naming.LimitExceededException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Fixed set of seeded games whose outcome must not change when the engine is optimized
+ * Each game is fingerprinted by a hash of its decisions and of the final scores of its players (which give its winners),
+ * and compared with the golden set: a compressed replay file of the same games, in which the first diverging decision
+ * of a changed game can be found
+ *
+ * @author Team C
+ */
+public class GoldenGames {
+    public static final Path GOLDEN_PATH = Paths.get("benchmark", "golden-games.ctdr.gz");
+    /**
+     * The number of games of each number of players in the golden set
+     */
+    public static final int GAMES_PER_CASE = 300;
+    public static final int MINIMUM_PLAYERS = 3;
+    public static final int MAXIMUM_PLAYERS = 8;
+    /**
+     * The bots seated around the table, shifted by one seat at each game so that every bot plays at every seat
+     */
+    private static final List<String> BOTS = Bots.KINDS;
+    private static final long SEED = 0x601DE2;
+    private static final long FNV_OFFSET_BASIS = 0xCBF29CE484222325L;
+    private static final long FNV_PRIME = 0x100000001B3L;
+    private final int gamesPerCase;
+
+    public GoldenGames() {
+        this(GAMES_PER_CASE);
+    }
+
+    /**
+     * @param gamesPerCase the number of games of each number of players
+     */
+    public GoldenGames(int gamesPerCase) {
+        if (gamesPerCase < 1) throw new IllegalArgumentException("A case must have at least one game");
+        this.gamesPerCase = gamesPerCase;
+    }
+
+    /**
+     * Creates a player of a game, which can be overridden to check a change of a bot against the golden set
+     *
+     * @param bot  the kind of bot
+     * @param name the name of the player
+     */
+    protected Player createPlayer(String bot, String name) {
+        return Bots.create(bot, name);
+    }
+
+    /**
+     * Plays the games and saves them as the golden set, replacing the previous one
+     *
+     * @param golden the compressed replay file of the golden set
+     */
+    public void save(Path golden) throws IOException {
+        Path games = Files.createTempFile("citadels-golden", ".ctdr");
+        try {
+            record(games);
+            if (golden.getParent() != null) Files.createDirectories(golden.getParent());
+            try (OutputStream output = new GZIPOutputStream(Files.newOutputStream(golden))) {
+                Files.copy(games, output);
+            }
+        } finally {
+            Files.delete(games);
+        }
+    }
+
+    /**
+     * Plays the games and compares their fingerprints with the ones of the golden set
+     *
+     * @param golden the compressed replay file of the golden set
+     * @return a description of each game that changed (with its first diverging decision) or that is missing, empty if
+     * every game ended exactly as in the golden set
+     */
+    public List<String> check(Path golden) throws IOException {
+        Map<Long, ReplayRecord> goldenGames = new HashMap<>();
+        try (InputStream input = new GZIPInputStream(Files.newInputStream(golden));
+             ReplayReader reader = new ReplayReader(input, golden.toString())) {
+            for (ReplayRecord replayRecord = reader.next(); replayRecord != null; replayRecord = reader.next())
+                goldenGames.put(replayRecord.seed(), replayRecord);
+        }
+        List<String> divergences = new ArrayList<>();
+        Path games = Files.createTempFile("citadels-golden", ".ctdr");
+        try {
+            record(games);
+            try (ReplayReader reader = new ReplayReader(games)) {
+                for (ReplayRecord game = reader.next(); game != null; game = reader.next()) {
+                    ReplayRecord expected = goldenGames.get(game.seed());
+                    if (expected == null) divergences.add(describe(game) + " isn't in the golden set");
+                    else if (fingerprint(game) != fingerprint(expected))
+                        divergences.add(describe(game) + " diverges: " + firstDivergence(expected, game));
+                }
+            }
+        } finally {
+            Files.delete(games);
+        }
+        return divergences;
+    }
+
+    /**
+     * Plays all the games on the calling thread, recording them in a replay file
+     */
+    private void record(Path file) throws IOException {
+        try (ReplayRecorder recorder = new ReplayRecorder(file)) {
+            for (int players = MINIMUM_PLAYERS; players <= MAXIMUM_PLAYERS; players++) {
+                SplittableRandom seeds = new SplittableRandom(SEED + players);
+                for (int i = 0; i < gamesPerCase; i++) {
+                    Player[] seats = new Player[players];
+                    for (int seat = 0; seat < players; seat++) {
+                        String bot = BOTS.get((seat + i) % BOTS.size());
+                        seats[seat] = createPlayer(bot, bot + " " + seat);
+                    }
+                    Game game = new Game(seeds.nextLong(), players, seats);
+                    GameRecording recording = recorder.record(game, i);
+                    try {
+                        game.start();
+                    } catch (LimitExceededException e) {
+                        // A stuck game must stay stuck
+                    } finally {
+                        recording.finish(game);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @param game a recorded game
+     * @return the FNV-1a hash of the players, the decisions and the outcome (last turn and scores) of the game
+     */
+    public static long fingerprint(ReplayRecord game) {
+        long hash = FNV_OFFSET_BASIS;
+        hash = hash(hash, game.numberOfPlayers());
+        for (String player : game.players()) hash = hash(hash, player.hashCode());
+        for (RecordedDecision decision : game.decisions()) {
+            hash = hash(hash, decision.decision().ordinal());
+            hash = hash(hash, decision.values().length);
+            for (int value : decision.values()) hash = hash(hash, value);
+        }
+        hash = hash(hash, game.turns());
+        hash = hash(hash, game.stuck() ? 1 : 0);
+        for (int score : game.scores()) hash = hash(hash, score);
+        return hash;
+    }
+
+    private static long hash(long hash, int value) {
+        for (int shift = 0; shift < Integer.SIZE; shift += Byte.SIZE)
+            hash = (hash ^ (value >>> shift & 0xFF)) * FNV_PRIME;
+        return hash;
+    }
+
+    /**
+     * @param expected the game of the golden set
+     * @param game     the same game, played again
+     * @return the first difference between the two games: their players, a decision or their outcome
+     */
+    static String firstDivergence(ReplayRecord expected, ReplayRecord game) {
+        if (!expected.players().equals(game.players()))
+            return "the players are " + game.players() + " instead of " + expected.players();
+        List<RecordedDecision> expectedDecisions = expected.decisions();
+        List<RecordedDecision> decisions = game.decisions();
+        for (int i = 0; i < Math.max(expectedDecisions.size(), decisions.size()); i++) {
+            RecordedDecision before = i < expectedDecisions.size() ? expectedDecisions.get(i) : null;
+            RecordedDecision after = i < decisions.size() ? decisions.get(i) : null;
+            if (before == null || after == null || before.decision() != after.decision() || !Arrays.equals(before.values(), after.values()))
+                return "decision " + i + " is " + describe(after) + " instead of " + describe(before);
+        }
+        if (expected.turns() != game.turns() || expected.stuck() != game.stuck())
+            return "the game " + (game.stuck() ? "got stuck" : "ended") + " at turn " + game.turns() + " instead of "
+                    + (expected.stuck() ? "getting stuck" : "ending") + " at turn " + expected.turns();
+        return "the scores are " + Arrays.toString(game.scores()) + " instead of " + Arrays.toString(expected.scores());
+    }
+
+    private static String describe(RecordedDecision decision) {
+        return decision == null ? "missing" : decision.decision() + " " + Arrays.toString(decision.values());
+    }
+
+    private static String describe(ReplayRecord game) {
+        return "Game " + game.gameIndex() + " of " + game.players().size() + " players (seed " + game.seed() + ")";
+    }
+}
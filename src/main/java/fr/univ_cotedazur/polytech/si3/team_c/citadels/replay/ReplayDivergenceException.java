@@ -0,0 +1,13 @@
+package fr.univ_cotedazur.polytech.si3.team_c.citadels.replay;
+
+/**
+ * Thrown when a replayed game doesn't follow its recording anymore
+ * (the game, the catalog or the rules changed since the game was recorded)
+ *
+ * @author Team C
+ */
+public class ReplayDivergenceException extends IllegalStateException {
+    public ReplayDivergenceException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,122 @@
+package fr.univ_cotedazur.polytech.si3.team_c.citadels.replay;
+
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.Game;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.events.Decision;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.players.Player;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.replay.ReplayRecord.RecordedDecision;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Plays a recorded game again, the players making the recorded decisions instead of thinking about them
+ * The game can be stopped at any turn to look at its state, and the replay is checked against the recorded outcome
+ *
+ * @author Team C
+ */
+public class ReplayGame {
+    private final ReplayRecord replayRecord;
+    private final Game game;
+    private final List<Player> seats;
+    private int nextDecision;
+    private boolean prepared;
+    private boolean over;
+
+    public ReplayGame(ReplayRecord replayRecord) {
+        this.replayRecord = replayRecord;
+        game = new Game(replayRecord.seed(), replayRecord.numberOfPlayers(),
+                replayRecord.players().stream().map(name -> new ReplayPlayer(name, this)).toArray(Player[]::new));
+        seats = game.getPlayerList();
+    }
+
+    /**
+     * @return the replayed game, in its state after the last replayed turn
+     */
+    public Game getGame() {
+        return game;
+    }
+
+    /**
+     * Replays the next turn of the game
+     *
+     * @return true if the recorded game ended after this turn
+     */
+    public boolean playTurn() {
+        if (over) throw new IllegalStateException("The game is over");
+        prepare();
+        boolean ended = game.playTurn();
+        over = ended || game.getCurrentTurn() == replayRecord.turns();
+        if (ended != (over && !replayRecord.stuck()))
+            throw divergence("the game " + (ended ? "ended" : "didn't end") + " at turn " + game.getCurrentTurn()
+                    + " but lasted " + replayRecord.turns() + " turns");
+        return ended;
+    }
+
+    /**
+     * Replays the game until the end of the given turn (or the end of the game)
+     *
+     * @param turn the last turn to replay
+     * @return the replayed game
+     */
+    public Game replayUntil(int turn) {
+        prepare();
+        while (!over && game.getCurrentTurn() < turn) playTurn();
+        return game;
+    }
+
+    /**
+     * Replays the whole game and checks that its outcome is the recorded one
+     *
+     * @return the replayed game
+     * @throws ReplayDivergenceException if the replay doesn't follow the recording
+     */
+    public Game replay() {
+        while (!over) playTurn();
+        if (!replayRecord.stuck()) game.end();
+        if (nextDecision != replayRecord.decisions().size())
+            throw divergence((replayRecord.decisions().size() - nextDecision) + " recorded decisions weren't replayed");
+        int[] scores = seats.stream().mapToInt(player -> player.getScore(game.getCurrentTurn())).toArray();
+        if (!Arrays.equals(scores, replayRecord.scores()))
+            throw divergence("the scores are " + Arrays.toString(scores) + " instead of " + Arrays.toString(replayRecord.scores()));
+        return game;
+    }
+
+    private void prepare() {
+        if (prepared) return;
+        game.prepare();
+        prepared = true;
+    }
+
+    /**
+     * @return the values of the next recorded decision, which must be of the given kind
+     */
+    int[] nextValues(Player player, Decision decision) {
+        if (nextDecision == replayRecord.decisions().size())
+            throw divergence(player.getName() + " has to choose " + decision + " after the last recorded decision");
+        RecordedDecision recorded = replayRecord.decisions().get(nextDecision++);
+        if (recorded.decision() != decision)
+            throw divergence(player.getName() + " has to choose " + decision + " instead of " + recorded.decision());
+        return recorded.values();
+    }
+
+    /**
+     * @return the single value of the next recorded decision, which must be of the given kind
+     */
+    int nextValue(Player player, Decision decision) {
+        int[] values = nextValues(player, decision);
+        if (values.length != 1) throw divergence(decision + " has " + values.length + " values");
+        return values[0];
+    }
+
+    /**
+     * @return the player sitting at the given seat
+     */
+    Player seat(int seat) {
+        return seats.get(seat);
+    }
+
+    ReplayDivergenceException divergence(String message) {
+        return new ReplayDivergenceException("Game " + replayRecord.gameIndex() + " (seed " + replayRecord.seed()
+                + ") diverged at turn " + game.getCurrentTurn() + ": " + message);
+    }
+}
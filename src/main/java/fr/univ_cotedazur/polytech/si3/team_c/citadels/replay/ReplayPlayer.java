@@ -0,0 +1,122 @@
+package fr.univ_cotedazur.polytech.si3.team_c.citadels.replay;
+
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.Character;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.*;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.events.Decision;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.players.Player;
+
+import java.util.AbstractMap.SimpleEntry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A player whose decisions are read from the recording of a game instead of being computed
+ *
+ * @author Team C
+ */
+public class ReplayPlayer extends Player {
+    /**
+     * The characters that can be robbed or killed: the bots may target a character which can't be interacted with
+     */
+    private static final List<Character> CHARACTERS = CharacterManager.defaultCharacterList();
+    private final ReplayGame replay;
+
+    ReplayPlayer(String name, ReplayGame replay) {
+        super(name, 0, List.of());
+        this.replay = replay;
+    }
+
+    /**
+     * Finds the recorded district cards among the given ones
+     */
+    private List<District> districts(int[] cardIds, List<District> among) {
+        List<District> districts = new ArrayList<>(cardIds.length);
+        for (int cardId : cardIds) districts.add(find(cardId, among));
+        return districts;
+    }
+
+    private District find(int cardId, List<District> among) {
+        for (District district : among) if (DistrictCatalog.cardId(district) == cardId) return district;
+        throw replay.divergence(getName() + " doesn't have the " + DistrictCatalog.card(cardId).getName() + " card " + cardId + " in " + among);
+    }
+
+    private Character character(int turn, List<Character> among) {
+        for (Character character : among) if (character.getTurn() == turn) return character;
+        throw replay.divergence(getName() + " can't choose the character of turn " + turn + " in " + among);
+    }
+
+    @Override
+    public Character pickCharacter(CharacterManager characterManager) {
+        super.pickCharacter(characterManager);
+        Character character = character(replay.nextValue(this, Decision.CHARACTER), characterManager.possibleCharactersToChoose());
+        setCharacter(character);
+        return character;
+    }
+
+    @Override
+    public Action nextAction(Set<Action> actions) {
+        Action action = Action.values()[replay.nextValue(this, Decision.ACTION)];
+        if (action != Action.NONE && !actions.contains(action))
+            throw replay.divergence(getName() + " can't " + action.getDescription() + " anymore");
+        return action;
+    }
+
+    @Override
+    public List<District> pickDistrictsFromDeck(List<District> drawnCards, int amountToChoose) {
+        List<District> kept = districts(replay.nextValues(this, Decision.KEEP_DISTRICTS), drawnCards);
+        kept.forEach(this::addDistrictToHand);
+        return kept;
+    }
+
+    @Override
+    protected List<District> pickDistrictsToBuild(int maxAmountToChoose, int turn) {
+        List<District> toBuild = districts(replay.nextValues(this, Decision.BUILD_DISTRICTS), getHandDistricts());
+        for (District district : toBuild) buildDistrict(district, turn);
+        return toBuild;
+    }
+
+    @Override
+    public District cardToDiscard() {
+        return find(replay.nextValue(this, Decision.DISCARD), getHandDistricts());
+    }
+
+    @Override
+    public SimpleEntry<IPlayer, District> destroyDistrict(List<IPlayer> players) {
+        int[] values = replay.nextValues(this, Decision.DESTROY);
+        if (values.length == 0) return null;
+        Player target = replay.seat(values[0]);
+        return new SimpleEntry<>(target, find(values[1], target.getBuiltDistricts()));
+    }
+
+    @Override
+    public Character chooseCharacterToRob(List<Character> characterList) {
+        return character(replay.nextValue(this, Decision.ROB), CHARACTERS);
+    }
+
+    @Override
+    public Character chooseCharacterToKill(List<Character> characterList) {
+        return character(replay.nextValue(this, Decision.KILL), CHARACTERS);
+    }
+
+    @Override
+    public IPlayer playerToExchangeCards(List<IPlayer> playerList) {
+        int[] values = replay.nextValues(this, Decision.EXCHANGE_WITH_PLAYER);
+        return values.length == 0 ? null : replay.seat(values[0]);
+    }
+
+    @Override
+    public List<District> chooseCardsToExchangeWithDeck() {
+        return districts(replay.nextValues(this, Decision.EXCHANGE_WITH_DECK), getHandDistricts());
+    }
+
+    @Override
+    public boolean wantsToTakeADestroyedDistrict(District district) {
+        return replay.nextValue(this, Decision.RECOVER) == 1;
+    }
+
+    @Override
+    public void setPossibleCharacters(List<IPlayer> beforePlayers, CharacterManager characterManager) {
+        // Nothing to guess, the choices are already known
+    }
+}
@@ -0,0 +1,106 @@
+package fr.univ_cotedazur.polytech.si3.team_c.citadels.replay;
+
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.events.Decision;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.replay.ReplayRecord.RecordedDecision;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reads the records of a replay file written by a {@link ReplayRecorder}, one after the other
+ *
+ * @author Team C
+ */
+public class ReplayReader implements Closeable {
+    private static final Decision[] DECISIONS = Decision.values();
+    private final DataInputStream input;
+    private final List<String> names = new ArrayList<>();
+    private final String fileName;
+
+    public ReplayReader(Path file) throws IOException {
+        this(Files.newInputStream(file), file.toString());
+    }
+
+    /**
+     * @param stream the content of a replay file (a compressed file being read through a GZIPInputStream)
+     * @param name   the name of the file, for the errors
+     */
+    public ReplayReader(InputStream stream, String name) throws IOException {
+        this.fileName = name;
+        input = new DataInputStream(new BufferedInputStream(stream));
+        byte[] magic = new byte[ReplayRecorder.MAGIC.length];
+        input.readFully(magic);
+        if (!Arrays.equals(magic, ReplayRecorder.MAGIC)) throw new IOException(name + " isn't a replay file");
+    }
+
+    /**
+     * @return the next record of the file, or null if there are no more records
+     */
+    public ReplayRecord next() throws IOException {
+        input.mark(1);
+        if (input.read() < 0) return null;
+        input.reset();
+        int length = readVarInt(input);
+        // A file whose recorder wasn't closed ends with the zeros of its last mapped region
+        if (length == 0) return null;
+        byte[] bytes = new byte[length];
+        input.readFully(bytes);
+        ByteArrayInputStream content = new ByteArrayInputStream(bytes);
+        DataInputStream replayRecord = new DataInputStream(content);
+        int gameIndex = readVarInt(replayRecord);
+        long seed = replayRecord.readLong();
+        int numberOfPlayers = readVarInt(replayRecord);
+        List<String> players = new ArrayList<>();
+        for (int i = readVarInt(replayRecord); i > 0; i--) {
+            int name = readVarInt(replayRecord);
+            if ((name & 1) != 0) {
+                byte[] nameBytes = new byte[readVarInt(replayRecord)];
+                replayRecord.readFully(nameBytes);
+                names.add(new String(nameBytes, StandardCharsets.UTF_8));
+            }
+            players.add(names.get(name >>> 1));
+        }
+        int turns = readVarInt(replayRecord);
+        boolean stuck = readVarInt(replayRecord) != 0;
+        int[] scores = new int[players.size()];
+        for (int i = 0; i < scores.length; i++) scores[i] = readVarInt(replayRecord);
+        List<RecordedDecision> decisions = new ArrayList<>();
+        for (int i = readVarInt(replayRecord); i > 0; i--) {
+            int header = readVarInt(replayRecord);
+            int[] values = new int[header >>> 4];
+            for (int j = 0; j < values.length; j++) values[j] = readVarInt(replayRecord);
+            decisions.add(new RecordedDecision(DECISIONS[header & 0xF], values));
+        }
+        if (content.available() > 0)
+            throw new IOException(fileName + " has a record of " + length + " bytes whose content takes " + (length - content.available()));
+        return new ReplayRecord(gameIndex, seed, numberOfPlayers, players, turns, stuck, scores, decisions);
+    }
+
+    /**
+     * Reads all the remaining records of the file
+     */
+    public List<ReplayRecord> readAll() throws IOException {
+        List<ReplayRecord> records = new ArrayList<>();
+        for (ReplayRecord replayRecord = next(); replayRecord != null; replayRecord = next()) records.add(replayRecord);
+        return records;
+    }
+
+    private static int readVarInt(DataInput input) throws IOException {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = input.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        input.close();
+    }
+}
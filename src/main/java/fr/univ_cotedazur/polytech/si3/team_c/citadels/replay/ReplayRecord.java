@@ -0,0 +1,27 @@
+package fr.univ_cotedazur.polytech.si3.team_c.citadels.replay;
+
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.events.Decision;
+
+import java.util.List;
+
+/**
+ * A game read from a replay file
+ *
+ * @param gameIndex       the index of the game in the run
+ * @param seed            the seed of the game
+ * @param numberOfPlayers the number of players the game has been set up for
+ * @param players         the names of the players, in their seating order
+ * @param turns           the last turn of the game
+ * @param stuck           true if the game got stuck instead of ending
+ * @param scores          the score of each player at the end of the game
+ * @param decisions       the decisions of the players, in the order they were made
+ * @author Team C
+ */
+public record ReplayRecord(int gameIndex, long seed, int numberOfPlayers, List<String> players, int turns, boolean stuck,
+                           int[] scores, List<RecordedDecision> decisions) {
+    /**
+     * A decision and its encoded values (see {@link GameRecording})
+     */
+    public record RecordedDecision(Decision decision, int[] values) {
+    }
+}
@@ -0,0 +1,140 @@
+package fr.univ_cotedazur.polytech.si3.team_c.citadels.replay;
+
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.Game;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.WriterPipeline;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.players.Player;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes the recordings of games in a memory-mapped replay file, shared by all the games of a run
+ * The file starts with the bytes "CTDR" and the version of the format, followed by a record per game:
+ * its length, the index of the game, its seed (8 bytes), the number of players it has been set up for, its players, the last turn, 1 if the game got stuck (else 0),
+ * the score of each player and the decisions of the game (see {@link GameRecording}).
+ * The names of the players are written once in the file, then referenced by their order of appearance.
+ * The records can be written by a {@link WriterPipeline}, so that the games don't wait for the disk.
+ *
+ * @author Team C
+ */
+public class ReplayRecorder implements Closeable {
+    static final byte[] MAGIC = {'C', 'T', 'D', 'R', 3};
+    private static final int REGION_SIZE = 1 << 24;
+    private final FileChannel channel;
+    private final WriterPipeline pipeline;
+    private final Map<String, Integer> names = new HashMap<>();
+    private final VarIntWriter header = new VarIntWriter();
+    private final VarIntWriter length = new VarIntWriter();
+    private MappedByteBuffer region;
+    private long size;
+
+    /**
+     * @param file the replay file, replaced if it already exists
+     */
+    public ReplayRecorder(Path file) throws IOException {
+        this(file, null);
+    }
+
+    /**
+     * @param file     the replay file, replaced if it already exists
+     * @param pipeline the pipeline writing the records (null to write them in the threads of the games)
+     */
+    public ReplayRecorder(Path file, WriterPipeline pipeline) throws IOException {
+        this.pipeline = pipeline;
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        write(MAGIC, MAGIC.length);
+    }
+
+    /**
+     * Starts recording a game, whose recording must be finished once the game is over
+     *
+     * @param game      the game to record, with all its players
+     * @param gameIndex the index of the game in the run
+     */
+    public GameRecording record(Game game, int gameIndex) {
+        GameRecording recording = new GameRecording(this, game, gameIndex);
+        game.getEvents().subscribe(recording);
+        return recording;
+    }
+
+    void append(int gameIndex, long seed, int numberOfPlayers, List<Player> players, VarIntWriter body) {
+        List<String> playerNames = players.stream().map(Player::getName).toList();
+        if (pipeline != null) pipeline.submit(() -> write(gameIndex, seed, numberOfPlayers, playerNames, body));
+        else {
+            try {
+                write(gameIndex, seed, numberOfPlayers, playerNames, body);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private synchronized void write(int gameIndex, long seed, int numberOfPlayers, List<String> players, VarIntWriter body) throws IOException {
+        header.clear();
+        header.writeVarInt(gameIndex);
+        header.writeLong(seed);
+        header.writeVarInt(numberOfPlayers);
+        header.writeVarInt(players.size());
+        for (String player : players) {
+            Integer nameId = names.get(player);
+            if (nameId != null) header.writeVarInt(nameId << 1);
+            else {
+                names.put(player, names.size());
+                header.writeVarInt(names.size() - 1 << 1 | 1);
+                byte[] name = player.getBytes(StandardCharsets.UTF_8);
+                header.writeVarInt(name.length);
+                header.writeBytes(name);
+            }
+        }
+        length.clear();
+        length.writeVarInt(header.size() + body.size());
+        write(length.bytes(), length.size());
+        write(header.bytes(), header.size());
+        write(body.bytes(), body.size());
+    }
+
+    private void write(byte[] bytes, int count) throws IOException {
+        for (int offset = 0; offset < count; ) {
+            if (region == null || !region.hasRemaining()) region = channel.map(FileChannel.MapMode.READ_WRITE, size, REGION_SIZE);
+            int chunk = Math.min(region.remaining(), count - offset);
+            region.put(bytes, offset, chunk);
+            offset += chunk;
+            size += chunk;
+        }
+    }
+
+    /**
+     * @return the number of bytes written in the file
+     */
+    public synchronized long size() {
+        return size;
+    }
+
+    /**
+     * Writes the recordings on the disk and cuts the file at the end of the last record
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if (pipeline != null) pipeline.flush();
+        } finally {
+            closeFile();
+        }
+    }
+
+    private synchronized void closeFile() throws IOException {
+        if (region != null) region.force();
+        channel.truncate(size);
+        channel.close();
+    }
+}
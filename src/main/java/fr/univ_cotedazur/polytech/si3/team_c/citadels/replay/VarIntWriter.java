@@ -0,0 +1,58 @@
+package fr.univ_cotedazur.polytech.si3.team_c.citadels.replay;
+
+import java.util.Arrays;
+
+/**
+ * Growable byte buffer writing unsigned integers on as few bytes as possible (7 bits per byte, the high bit telling that another byte follows)
+ *
+ * @author Team C
+ */
+class VarIntWriter {
+    private byte[] bytes = new byte[256];
+    private int size;
+
+    void writeVarInt(int value) {
+        while ((value & ~0x7F) != 0) {
+            writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        writeByte(value);
+    }
+
+    void writeLong(long value) {
+        for (int shift = 56; shift >= 0; shift -= 8) writeByte((int) (value >>> shift));
+    }
+
+    void writeBytes(byte[] values) {
+        ensureCapacity(values.length);
+        System.arraycopy(values, 0, bytes, size, values.length);
+        size += values.length;
+    }
+
+    void writeAll(VarIntWriter other) {
+        ensureCapacity(other.size);
+        System.arraycopy(other.bytes, 0, bytes, size, other.size);
+        size += other.size;
+    }
+
+    private void writeByte(int value) {
+        ensureCapacity(1);
+        bytes[size++] = (byte) value;
+    }
+
+    private void ensureCapacity(int length) {
+        if (size + length > bytes.length) bytes = Arrays.copyOf(bytes, Math.max(bytes.length << 1, size + length));
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    byte[] bytes() {
+        return bytes;
+    }
+}
@@ -0,0 +1,73 @@
+package fr.univ_cotedazur.polytech.si3.team_c.citadels;
+
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.players.*;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import javax.naming.LimitExceededException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.util.Properties;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the bytes allocated by a game stay within the budget of allocation-budget.properties
+ * The budget of a mix of bots is in bytes per game, measured on the same seeded games once the code is warmed up
+ * When an optimization lowers the allocations, the budget should be lowered too, so that it stays in place
+ * It runs in its own JVM (see the pom), where the classes of the game aren't instrumented by the spies of the other tests
+ */
+class AllocationBudgetTest {
+    private static final int WARMUP_GAMES = 200;
+    private static final int MEASURED_GAMES = 100;
+    private static final Properties BUDGET = new Properties();
+    private static com.sun.management.ThreadMXBean threads;
+
+    @BeforeAll
+    static void loadBudget() throws IOException {
+        try (InputStream budget = AllocationBudgetTest.class.getResourceAsStream("/allocation-budget.properties")) {
+            assertNotNull(budget, "The allocation budget is missing");
+            BUDGET.load(budget);
+        }
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean && bean.isThreadAllocatedMemorySupported()) {
+            bean.setThreadAllocatedMemoryEnabled(true);
+            threads = bean;
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"Bot", "RichardBot", "Mixed"})
+    void allocationsPerGame(String bots) throws LimitExceededException {
+        Assumptions.assumeTrue(threads != null, "The JVM doesn't measure the allocations of the threads");
+        long budget = Long.parseLong(BUDGET.getProperty(bots));
+        playGames(bots, WARMUP_GAMES, 1);
+        long thread = Thread.currentThread().getId();
+        long start = threads.getThreadAllocatedBytes(thread);
+        playGames(bots, MEASURED_GAMES, 2);
+        long perGame = (threads.getThreadAllocatedBytes(thread) - start) / MEASURED_GAMES;
+        assertTrue(perGame <= budget, bots + " games allocate " + perGame + " bytes, over their budget of " + budget + " bytes");
+    }
+
+    private static void playGames(String bots, int numberOfGames, long seed) throws LimitExceededException {
+        SplittableRandom seeds = new SplittableRandom(seed);
+        int numberOfPlayers = bots.equals("Mixed") ? Bots.KINDS.size() : 4;
+        for (int i = 0; i < numberOfGames; i++) {
+            Player[] players = new Player[numberOfPlayers];
+            for (int seat = 0; seat < numberOfPlayers; seat++)
+                players[seat] = switch (bots) {
+                    case "Bot" -> new Bot("Bot " + seat);
+                    case "RichardBot" -> new RichardBot("Richard Bot " + seat);
+                    default -> Bots.create(Bots.KINDS.get(seat), "Bot " + seat);
+                };
+            try {
+                new Game(seeds.nextLong(), numberOfPlayers, players).start();
+            } catch (LimitExceededException e) {
+                // A stuck game is part of the budget too
+            }
+        }
+    }
+}
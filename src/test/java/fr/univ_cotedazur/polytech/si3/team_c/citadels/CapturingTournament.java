@@ -0,0 +1,50 @@
+package fr.univ_cotedazur.polytech.si3.team_c.citadels;
+
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.players.Player;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * A tournament keeping the games it creates, so that the tests can check them once they are played
+ *
+ * @author Team C
+ */
+public class CapturingTournament extends Tournament {
+    private final Map<Integer, Game> games = new ConcurrentHashMap<>();
+    private BiConsumer<Integer, Game> onCreated = (index, game) -> {
+    };
+
+    @SafeVarargs
+    @SuppressWarnings("varargs") // The factories are only read, by the constructor of the tournament
+    public CapturingTournament(int numberOfGames, int numberOfPlayers, Supplier<? extends Player>... playerFactories) {
+        super(numberOfGames, numberOfPlayers, playerFactories);
+    }
+
+    /**
+     * Does something with each game once it is created, before it is played (on the thread playing it)
+     *
+     * @param onCreated called with the index of the game and the game
+     */
+    public CapturingTournament onCreated(BiConsumer<Integer, Game> onCreated) {
+        this.onCreated = onCreated;
+        return this;
+    }
+
+    @Override
+    protected Game createGame(int index) {
+        Game game = super.createGame(index);
+        games.put(index, game);
+        onCreated.accept(index, game);
+        return game;
+    }
+
+    /**
+     * @return the games created so far, by their index in the tournament
+     */
+    public Map<Integer, Game> getGames() {
+        return games;
+    }
+}
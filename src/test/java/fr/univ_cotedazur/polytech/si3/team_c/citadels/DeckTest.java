@@ -1,10 +1,11 @@
 package fr.univ_cotedazur.polytech.si3.team_c.citadels;
 
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.districts.*;
 import org.junit.jupiter.api.Test;
 
-import java.util.List;
+import java.util.*;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 
 class DeckTest {
     Deck deck = new Deck();
@@ -13,4 +14,65 @@ class DeckTest {
     void draw() {
         assertEquals(List.of(deck.getFirst()), deck.draw(1));
     }
-}
\ No newline at end of file
+
+    @Test
+    void decksShareTheCatalogCards() {
+        assertEquals(65, deck.size());
+        Set<District> cards = Collections.newSetFromMap(new IdentityHashMap<>());
+        cards.addAll(deck.draw(65));
+        assertEquals(65, cards.size());
+        Set<District> catalog = Collections.newSetFromMap(new IdentityHashMap<>());
+        catalog.addAll(DistrictCatalog.cards());
+        assertEquals(catalog, cards);
+        for (District card : new Deck().draw(65)) assertTrue(cards.contains(card));
+    }
+
+    @Test
+    void sameSeedSameOrder() {
+        List<District> cards = DistrictCatalog.cards();
+        assertEquals(new Deck(cards, new SplittableRandom(3)).draw(65), new Deck(cards, new SplittableRandom(3)).draw(65));
+        assertNotEquals(new Deck(cards, new SplittableRandom(3)).draw(65), new Deck(cards, new SplittableRandom(4)).draw(65));
+    }
+
+    @Test
+    void putBackCards() {
+        Manor manor = new Manor();
+        Castle castle = new Castle();
+        deck = new Deck(List.of(new Temple(), new Church()));
+        deck.addLast(manor);
+        deck.addFirst(castle);
+        assertSame(castle, deck.getFirst());
+        assertEquals(4, deck.size());
+        List<District> drawn = deck.draw(10);
+        assertSame(castle, drawn.get(0));
+        assertEquals(Set.of(new Temple(), new Church()), Set.of(drawn.get(1), drawn.get(2)));
+        assertSame(manor, drawn.get(3));
+        assertTrue(deck.isEmpty());
+        assertTrue(deck.draw(1).isEmpty());
+        assertThrows(NoSuchElementException.class, deck::getFirst);
+    }
+
+    @Test
+    void growWhenFull() {
+        deck = new Deck(List.of());
+        for (int i = 0; i < 40; i++) deck.addFirst(new Manor());
+        for (int i = 0; i < 40; i++) deck.addLast(new Tavern());
+        List<District> drawn = deck.draw(80);
+        assertEquals(Collections.nCopies(40, new Manor()), drawn.subList(0, 40));
+        assertEquals(Collections.nCopies(40, new Tavern()), drawn.subList(40, 80));
+    }
+
+    @Test
+    void catalogIds() {
+        assertEquals(65, DistrictCatalog.size());
+        assertEquals(27, DistrictCatalog.numberOfTypes());
+        for (int id = 0; id < DistrictCatalog.size(); id++) {
+            District card = DistrictCatalog.card(id);
+            assertEquals(id, DistrictCatalog.cardId(card));
+            assertEquals(DistrictCatalog.typeOfCard(id), DistrictCatalog.typeId(card));
+            assertEquals(card, DistrictCatalog.type(DistrictCatalog.typeOfCard(id)));
+        }
+        assertEquals(-1, DistrictCatalog.cardId(new Manor()));
+        assertEquals(new Manor(), DistrictCatalog.type(DistrictCatalog.typeId(new Manor())));
+    }
+}
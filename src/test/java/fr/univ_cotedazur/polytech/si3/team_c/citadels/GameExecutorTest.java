@@ -0,0 +1,107 @@
+package fr.univ_cotedazur.polytech.si3.team_c.citadels;
+
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.players.Bot;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.players.RandomBot;
+import org.junit.jupiter.api.Test;
+
+import javax.naming.LimitExceededException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameExecutorTest {
+    @Test
+    void virtualThreadsFromJava21() {
+        assertEquals(Runtime.version().feature() >= 21, GameExecutor.supportsVirtualThreads());
+        try (GameExecutor executor = GameExecutor.create(2)) {
+            assertEquals(GameExecutor.supportsVirtualThreads(), executor.isVirtual());
+        }
+        try (GameExecutor executor = GameExecutor.platform(2)) {
+            assertFalse(executor.isVirtual());
+        }
+        assertThrows(IllegalArgumentException.class, () -> GameExecutor.platform(0));
+    }
+
+    @Test
+    void gamesAreIsolated() throws LimitExceededException {
+        List<Integer> expected = new ArrayList<>();
+        for (long seed = 0; seed < 20; seed++) expected.add(score(play(seed)));
+
+        List<CompletableFuture<Game>> games = new ArrayList<>();
+        try (GameExecutor executor = GameExecutor.create(4)) {
+            for (long seed = 0; seed < 20; seed++) games.add(executor.start(game(seed)));
+        }
+        assertEquals(expected, games.stream().map(game -> score(game.join())).toList());
+    }
+
+    @Test
+    void gamesWaitForTheirThread() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        try (GameExecutor executor = GameExecutor.platform(1)) {
+            CompletableFuture<Boolean> first = executor.submit(() -> release.await(1, TimeUnit.MINUTES));
+            CompletableFuture<Game> second = executor.start(game(3));
+            Thread.sleep(50);
+            assertFalse(second.isDone());
+            release.countDown();
+            assertTrue(first.join());
+            assertTrue(second.join().getCurrentTurn() > 0);
+        }
+    }
+
+    @Test
+    void failuresCompleteTheFuture() {
+        try (GameExecutor executor = GameExecutor.create(1)) {
+            CompletableFuture<Object> failed = executor.submit(() -> {
+                throw new LimitExceededException("Stuck");
+            });
+            CompletionException exception = assertThrows(CompletionException.class, failed::join);
+            assertInstanceOf(LimitExceededException.class, exception.getCause());
+        }
+    }
+
+    @Test
+    void errorsCompleteTheFuture() {
+        CompletableFuture<Game> broken;
+        CompletableFuture<Game> next;
+        try (GameExecutor executor = GameExecutor.platform(1)) {
+            broken = executor.start(new Game(3, 4, new BrokenBot("Broken Bot"), new Bot("Bot 1"), new Bot("Bot 2")));
+            next = executor.start(game(3));
+        }
+        CompletionException exception = assertThrows(CompletionException.class, broken::join);
+        assertInstanceOf(InternalError.class, exception.getCause());
+        assertTrue(next.join().getCurrentTurn() > 0);
+    }
+
+    /**
+     * A bot which breaks as soon as he picks a character
+     */
+    static class BrokenBot extends Bot {
+        BrokenBot(String name) {
+            super(name);
+        }
+
+        @Override
+        public Character pickCharacter(CharacterManager characterManager) {
+            throw new InternalError("Broken bot");
+        }
+    }
+
+    private static Game game(long seed) {
+        return new Game(seed, 4, new Bot("Bot 1"), new Bot("Bot 2"), new RandomBot("Random Bot"));
+    }
+
+    private static Game play(long seed) throws LimitExceededException {
+        Game game = game(seed);
+        game.start();
+        return game;
+    }
+
+    private static int score(Game game) {
+        return game.getWinners().getValue() * 100 + game.getCurrentTurn();
+    }
+}
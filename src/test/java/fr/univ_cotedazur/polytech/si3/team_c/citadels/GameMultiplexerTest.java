@@ -0,0 +1,209 @@
+package fr.univ_cotedazur.polytech.si3.team_c.citadels;
+
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.events.Decision;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.events.GameEvent;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.players.Bot;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.players.RichardBot;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.profiling.DecisionProfiler;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.profiling.LatencyHistogram;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import javax.naming.LimitExceededException;
+import java.util.AbstractMap.SimpleEntry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameMultiplexerTest {
+    private static final long PICKING_NANOS = 1_000_000;
+    private final ExecutorService remote = Executors.newSingleThreadExecutor();
+    private final AtomicInteger remoteDecisions = new AtomicInteger();
+
+    @AfterEach
+    void shutdown() {
+        remote.shutdown();
+    }
+
+    /**
+     * A bot making all its decisions on another thread, as a remote player would
+     */
+    private class RemoteBot extends Bot {
+        RemoteBot(String name) {
+            super(name);
+        }
+
+        private <T> CompletableFuture<T> remotely(Supplier<T> decision) {
+            return CompletableFuture.supplyAsync(() -> {
+                remoteDecisions.incrementAndGet();
+                return decision.get();
+            }, remote);
+        }
+
+        @Override
+        public CompletableFuture<Character> requestCharacter(CharacterManager characterManager) {
+            return remotely(() -> pickCharacter(characterManager));
+        }
+
+        @Override
+        public CompletableFuture<Action> requestNextAction() {
+            return remotely(this::nextAction);
+        }
+
+        @Override
+        public CompletableFuture<List<District>> requestDistrictsFromDeck(List<District> drawnCards, int amountToChoose) {
+            return remotely(() -> pickDistrictsFromDeck(drawnCards, amountToChoose));
+        }
+
+        @Override
+        public CompletableFuture<List<District>> requestDistrictsToBuild(int turn) {
+            return remotely(() -> pickDistrictsToBuild(turn));
+        }
+
+        @Override
+        public CompletableFuture<District> requestCardToDiscard() {
+            return remotely(this::cardToDiscard);
+        }
+
+        @Override
+        public CompletableFuture<Character> requestCharacterToRob(List<Character> characterList) {
+            return remotely(() -> chooseCharacterToRob(characterList));
+        }
+
+        @Override
+        public CompletableFuture<Character> requestCharacterToKill(List<Character> characterList) {
+            return remotely(() -> chooseCharacterToKill(characterList));
+        }
+
+        @Override
+        public CompletableFuture<List<District>> requestCardsToExchangeWithDeck() {
+            return remotely(this::chooseCardsToExchangeWithDeck);
+        }
+
+        @Override
+        public CompletableFuture<IPlayer> requestPlayerToExchangeCards(List<IPlayer> playerList) {
+            return remotely(() -> playerToExchangeCards(playerList));
+        }
+
+        @Override
+        public CompletableFuture<SimpleEntry<IPlayer, District>> requestDistrictToDestroy(List<IPlayer> players) {
+            return remotely(() -> destroyDistrict(players));
+        }
+
+        @Override
+        public CompletableFuture<Boolean> requestToTakeADestroyedDistrict(District district) {
+            return remotely(() -> wantsToTakeADestroyedDistrict(district));
+        }
+    }
+
+    /**
+     * A bot taking a millisecond to pick its character on another thread, its other decisions being made at once
+     */
+    private class SlowPickerBot extends Bot {
+        SlowPickerBot(String name) {
+            super(name);
+        }
+
+        @Override
+        public CompletableFuture<Character> requestCharacter(CharacterManager characterManager) {
+            return CompletableFuture.supplyAsync(() -> {
+                LockSupport.parkNanos(PICKING_NANOS);
+                return pickCharacter(characterManager);
+            }, remote);
+        }
+    }
+
+    @Test
+    void playGamesWithRemotePlayersOnOneThread() throws InterruptedException, LimitExceededException {
+        GameMultiplexer multiplexer = new GameMultiplexer();
+        List<CompletableFuture<Game>> games = new ArrayList<>();
+        for (long seed = 0; seed < 100; seed++)
+            games.add(multiplexer.add(new Game(seed, 4, new RemoteBot("Bot 1"), new Bot("Bot 2"), new RemoteBot("Bot 3"), new RichardBot("Richard Bot"))));
+        multiplexer.run();
+        assertTrue(remoteDecisions.get() > 100);
+
+        for (int seed = 0; seed < 100; seed++) {
+            Game expected = new Game(seed, 4, new Bot("Bot 1"), new Bot("Bot 2"), new Bot("Bot 3"), new RichardBot("Richard Bot"));
+            try {
+                expected.start();
+            } catch (LimitExceededException e) {
+                assertInstanceOf(LimitExceededException.class, assertThrows(Exception.class, games.get(seed)::join).getCause());
+                continue;
+            }
+            Game game = games.get(seed).join();
+            assertEquals(Game.Phase.OVER, game.getPhase());
+            assertEquals(expected.getCurrentTurn(), game.getCurrentTurn());
+            assertEquals(expected.getPlayerList().stream().map(player -> player.getScore(expected.getCurrentTurn())).toList(),
+                    game.getPlayerList().stream().map(player -> player.getScore(game.getCurrentTurn())).toList());
+        }
+    }
+
+    @Test
+    void everyDecisionIsAskedThroughTheRequests() throws LimitExceededException {
+        List<Decision> decisions = new ArrayList<>();
+        Game game = new Game(7, 4, new RemoteBot("Bot 1"), new RemoteBot("Bot 2"), new RemoteBot("Bot 3"), new RemoteBot("Bot 4"));
+        game.getEvents().subscribe(event -> {
+            if (event instanceof GameEvent.DecisionMade decisionMade) decisions.add(decisionMade.decision());
+            else if (event instanceof GameEvent.CharacterPicked) decisions.add(Decision.CHARACTER);
+            else if (event instanceof GameEvent.ActionChosen) decisions.add(Decision.ACTION);
+        });
+        while (game.step()) {
+            if (game.isWaiting()) game.ready().join();
+        }
+        assertEquals(decisions.size(), remoteDecisions.get());
+        assertTrue(decisions.containsAll(List.of(Decision.KEEP_DISTRICTS, Decision.BUILD_DISTRICTS, Decision.DESTROY)));
+
+        Game expected = new Game(7, 4, new Bot("Bot 1"), new Bot("Bot 2"), new Bot("Bot 3"), new Bot("Bot 4"));
+        expected.start();
+        assertEquals(expected.getCurrentTurn(), game.getCurrentTurn());
+        assertEquals(expected.getPlayerList().stream().map(player -> player.getScore(expected.getCurrentTurn())).toList(),
+                game.getPlayerList().stream().map(player -> player.getScore(game.getCurrentTurn())).toList());
+    }
+
+    @Test
+    void onlyThePlayersOverridingARequestDecideAsynchronously() {
+        assertFalse(new Bot("Bot").decidesAsynchronously());
+        assertFalse(new RichardBot("Richard Bot").decidesAsynchronously());
+        assertTrue(new RemoteBot("Remote Bot").decidesAsynchronously());
+        assertTrue(new SlowPickerBot("Slow Bot").decidesAsynchronously());
+    }
+
+    @Test
+    void profilerMeasuresTheRemoteDecisionsUntilTheyAreAnswered() throws LimitExceededException {
+        DecisionProfiler profiler = new DecisionProfiler();
+        Game game = new Game(5, 3, new SlowPickerBot("Bot 1"), new SlowPickerBot("Bot 2"), new SlowPickerBot("Bot 3"));
+        game.setProfiler(profiler);
+        game.start();
+        LatencyHistogram characters = profiler.getHistogram("SlowPickerBot", Decision.CHARACTER);
+        assertEquals(3L * game.getCurrentTurn(), characters.getCount());
+        assertTrue(characters.getTotal() >= characters.getCount() * PICKING_NANOS);
+        assertTrue(profiler.getHistogram("SlowPickerBot", Decision.ACTION).getCount() > 0);
+    }
+
+    @Test
+    void startWaitsForRemotePlayers() throws LimitExceededException {
+        Game game = new Game(3, 3, new RemoteBot("Bot 1"), new RemoteBot("Bot 2"), new Bot("Bot 3"));
+        game.start();
+        assertEquals(Game.Phase.OVER, game.getPhase());
+        assertFalse(game.isWaiting());
+        assertTrue(game.ready().isDone());
+    }
+
+    @Test
+    void onlyNewGames() throws LimitExceededException {
+        GameMultiplexer multiplexer = new GameMultiplexer();
+        Game game = new Game(1, 3, new Bot("Bot 1"), new Bot("Bot 2"), new Bot("Bot 3"));
+        multiplexer.add(game);
+        assertThrows(IllegalArgumentException.class, () -> multiplexer.add(game));
+        Game started = new Game(1, 3, new Bot("Bot 1"), new Bot("Bot 2"), new Bot("Bot 3"));
+        started.step();
+        assertThrows(IllegalStateException.class, () -> multiplexer.add(started));
+    }
+}
@@ -2,13 +2,17 @@ package fr.univ_cotedazur.polytech.si3.team_c.citadels;
 
 import fr.univ_cotedazur.polytech.si3.team_c.citadels.characters.*;
 import fr.univ_cotedazur.polytech.si3.team_c.citadels.districts.*;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.events.GameEvent;
 import fr.univ_cotedazur.polytech.si3.team_c.citadels.players.Bot;
 import fr.univ_cotedazur.polytech.si3.team_c.citadels.players.FearFulBot;
 import fr.univ_cotedazur.polytech.si3.team_c.citadels.players.Player;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.players.RandomBot;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.players.RichardBot;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 
+import javax.naming.LimitExceededException;
 import java.util.AbstractMap.SimpleEntry;
 import java.util.*;
 import java.util.function.Predicate;
@@ -38,6 +42,16 @@ class GameTest {
         };
     }
 
+    @Test
+    void actionMessagesAreFormattedOnDemand() {
+        Bot bot = new Bot("bot1", 2, List.of(new Manor()));
+        game.addPlayer(bot);
+        var message = Action.INCOME.doAction(game, bot);
+        assertEquals(4, bot.getCoins()); // The action is done even if the message is never formatted
+        bot.gainCoins(10);
+        assertEquals("bot1 got 2 coins", message.get());
+    }
+
     @Test
         // Here, we are testing if the game is ending (that the method start executes well until the end)
     void start() {
@@ -46,6 +60,45 @@ class GameTest {
         assertEquals(game.getPlayerList(), game.getWinners().getKey());
     }
 
+    @Test
+    void seededGamesAreReproducible() throws LimitExceededException {
+        List<String> results = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            Game seededGame = new Game(1234, 6, new RandomBot("random"), new RichardBot("richard"));
+            seededGame.start();
+            results.add(seededGame.getCurrentTurn() + " " + seededGame.getPlayerList().stream()
+                    .map(player -> player.getName() + ":" + player.getScore(seededGame.getCurrentTurn()) + player.getBuiltDistricts())
+                    .toList());
+        }
+        assertEquals(1234, new Game(1234, 4).getSeed());
+        assertEquals(results.get(0), results.get(1));
+    }
+
+    @Test
+    void gameEvents() throws LimitExceededException {
+        Game seededGame = new Game(99, 6, new RichardBot("richard"));
+        List<GameEvent> events = new ArrayList<>();
+        seededGame.getEvents().subscribe(events::add);
+        seededGame.start();
+        assertInstanceOf(GameEvent.GameStarted.class, events.get(0));
+        GameEvent.GameEnded end = assertInstanceOf(GameEvent.GameEnded.class, events.get(events.size() - 1));
+        assertEquals(seededGame.getWinners().getKey(), end.winners());
+        assertEquals(seededGame.getCurrentTurn(), events.stream().filter(GameEvent.TurnStarted.class::isInstance).count());
+        assertEquals(6L * seededGame.getCurrentTurn(), events.stream().filter(GameEvent.CharacterPicked.class::isInstance).count());
+        long built = events.stream().filter(GameEvent.DistrictBuilt.class::isInstance).count();
+        long destroyed = events.stream().filter(GameEvent.DistrictDestroyed.class::isInstance).count();
+        assertEquals(seededGame.getPlayerList().stream().mapToInt(Player::getNumberOfBuiltDistricts).sum(), built - destroyed);
+        for (Player player : seededGame.getPlayerList()) {
+            int coins = 2; // The coins given before the first turn
+            for (GameEvent event : events) {
+                if (event instanceof GameEvent.CoinsMoved moved && moved.player() == player) coins += moved.delta();
+                else if (event instanceof GameEvent.CoinsStolen stolen && stolen.victim() == player) coins -= stolen.coins();
+                else if (event instanceof GameEvent.CoinsStolen stolen && stolen.robber() == player) coins += stolen.coins();
+            }
+            assertEquals(player.getCoins(), coins, player.getName());
+        }
+    }
+
     @Test
     void defaultCharacterList() {
         List<Character> characterList = new ArrayList<>(List.of(new Assassin(), new Thief(), new Magician(), new King(),
@@ -816,4 +869,27 @@ class GameTest {
         assertEquals(List.of(bot3, bot4, bot2), bot1.getPlayers());
         assertEquals(List.of(bot4, bot1, bot2), bot3.getPlayers());
     }
-}
\ No newline at end of file
+
+    @Test
+    void stepByStep() throws LimitExceededException {
+        Game started = new Game(11, 5, new Bot("Bot 1"), new RichardBot("Richard Bot"), new RandomBot("Random Bot"));
+        started.start();
+        Game stepped = new Game(11, 5, new Bot("Bot 1"), new RichardBot("Richard Bot"), new RandomBot("Random Bot"));
+        assertEquals(Game.Phase.SETUP, stepped.getPhase());
+
+        List<Game.Phase> phases = new ArrayList<>();
+        while (stepped.step()) {
+            assertFalse(stepped.isWaiting());
+            if (phases.isEmpty() || phases.get(phases.size() - 1) != stepped.getPhase()) phases.add(stepped.getPhase());
+        }
+        assertEquals(Game.Phase.OVER, stepped.getPhase());
+        assertFalse(stepped.step());
+        assertEquals(List.of(Game.Phase.CHARACTER_SELECTION, Game.Phase.START_OF_TURN), phases.subList(0, 2));
+        assertEquals(Game.Phase.END_OF_ROUND, phases.get(phases.size() - 1));
+        assertTrue(phases.contains(Game.Phase.ACTION_LOOP));
+
+        assertEquals(started.getCurrentTurn(), stepped.getCurrentTurn());
+        assertEquals(started.getPlayerList().stream().map(player -> player.getScore(started.getCurrentTurn())).toList(),
+                stepped.getPlayerList().stream().map(player -> player.getScore(stepped.getCurrentTurn())).toList());
+    }
+}
@@ -0,0 +1,44 @@
+package fr.univ_cotedazur.polytech.si3.team_c.citadels;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatisticAggregatorTest {
+    private static Map<String, Statistic> cell(int botPoints, int otherPoints) {
+        Map<String, Statistic> cell = new LinkedHashMap<>();
+        Statistic bot = new Statistic("Bot");
+        bot.addWin(botPoints);
+        Statistic other = new Statistic("Other");
+        other.addLoss(otherPoints);
+        cell.put(bot.getName(), bot);
+        cell.put(other.getName(), other);
+        return cell;
+    }
+
+    @Test
+    void snapshotOfPublishedCells() {
+        StatisticAggregator aggregator = new StatisticAggregator(3);
+        assertTrue(aggregator.snapshot().isEmpty());
+        aggregator.publish(2, cell(30, 20));
+        aggregator.publish(0, cell(20, 10));
+        assertEquals(2, aggregator.numberOfPublishedCells());
+        assertTrue(aggregator.isPublished(2));
+        assertFalse(aggregator.isPublished(1));
+
+        List<Statistic> snapshot = aggregator.snapshot();
+        assertEquals(List.of("Bot", "Other"), snapshot.stream().map(Statistic::getName).toList());
+        assertEquals(2, snapshot.get(0).getWin());
+        assertEquals(25, snapshot.get(0).getMeanPoints());
+        assertEquals(15, snapshot.get(1).getMeanPoints());
+
+        // The snapshots are copies: folding again gives the same statistics
+        snapshot.get(0).addLoss(0);
+        assertEquals(2, aggregator.snapshot().get(0).numberOfTest());
+        assertThrows(IllegalStateException.class, () -> aggregator.publish(0, cell(0, 0)));
+    }
+}
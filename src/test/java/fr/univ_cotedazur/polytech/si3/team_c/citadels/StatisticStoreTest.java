@@ -0,0 +1,82 @@
+package fr.univ_cotedazur.polytech.si3.team_c.citadels;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatisticStoreTest {
+    @TempDir
+    Path directory;
+
+    private static Statistic statistic(String name, int... points) {
+        Statistic statistic = new Statistic(name);
+        for (int i = 0; i < points.length; i++) {
+            if (i % 2 == 0) statistic.addWin(points[i]);
+            else statistic.addLoss(points[i]);
+        }
+        return statistic;
+    }
+
+    @Test
+    void appendAndCompact() throws IOException {
+        StatisticStore store = new StatisticStore(directory.resolve("stats").resolve("gamestats.csv"));
+        store.append(List.of(statistic("Bot", 20, 25, 30), statistic("Richard \"Bot\"", 10)));
+        store.append(List.of(statistic("Bot", 12, 17)));
+        List<Statistic> rows = store.load();
+        assertEquals(3, rows.size());
+        assertEquals("Richard \"Bot\"", rows.get(1).getName());
+        assertEquals(List.of(3L, 1L, 2L), rows.stream().map(Statistic::numberOfTest).toList());
+
+        Statistic expected = statistic("Bot", 20, 25, 30, 12, 17);
+        List<Statistic> compacted = store.compact();
+        assertEquals(compacted.size(), store.load().size());
+        Statistic bot = store.load().get(0);
+        assertEquals(5, bot.numberOfTest());
+        assertEquals(3, bot.getWin());
+        assertEquals(expected.getMeanPoints(), bot.getMeanPoints(), 1e-12);
+        assertEquals(expected.getPointsStandardDeviation(), bot.getPointsStandardDeviation(), 1e-12);
+    }
+
+    @Test
+    void interruptedAppend() throws IOException {
+        Path file = directory.resolve("gamestats.csv");
+        StatisticStore store = new StatisticStore(file);
+        store.append(List.of(statistic("Bot", 20)));
+        Files.writeString(file, "\"1\";\"Bot\";\"0\";\"0.0", StandardOpenOption.APPEND);
+        assertEquals(1, store.load().size());
+        store.append(List.of(statistic("Bot", 30)));
+        assertEquals(List.of(20.0, 30.0), store.load().stream().map(Statistic::getMeanPoints).toList());
+    }
+
+    @Test
+    void previousFormatIsCompacted() throws IOException {
+        Path file = directory.resolve("gamestats.csv");
+        Files.writeString(file, """
+                "NUMBER OF RUNS";"NAME OF THE BOT";"NUMBER OF WINS";"PERCENTAGE OF WINS";"NUMBER OF EQUALITIES";"PERCENTAGE OF EQUALITIES";"NUMBER OF LOSSES";"PERCENTAGE OF LOSSES";"AVERAGE POINTS"
+                "2";"Bot";"1";"50.0";"0";"0.0";"1";"50.0";"20.5"
+                "2";"Bot";"2";"100.0";"0";"0.0";"0";"0.0";"30.5"
+                """);
+        StatisticStore store = new StatisticStore(file);
+        store.append(List.of(statistic("Other", 10)));
+        List<Statistic> rows = store.load();
+        assertEquals(List.of("Bot", "Other"), rows.stream().map(Statistic::getName).toList());
+        assertEquals(4, rows.get(0).numberOfTest());
+        assertEquals(3, rows.get(0).getWin());
+        assertEquals(25.5, rows.get(0).getMeanPoints(), 1e-12);
+        // The deviations of the old rows are unknown, and stay so once merged with new rows
+        assertFalse(rows.get(0).hasPointsDeviation());
+        assertTrue(rows.get(1).hasPointsDeviation());
+        store.append(List.of(statistic("Bot", 40)));
+        Statistic bot = store.compact().get(0);
+        assertFalse(bot.hasPointsDeviation());
+        assertTrue(Double.isNaN(bot.getPointsConfidenceInterval()));
+        assertTrue(bot.confidenceDescription().endsWith("(deviation unknown: some games were stored without it)"));
+    }
+}
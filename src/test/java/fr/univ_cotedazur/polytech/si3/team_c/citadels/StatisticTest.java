@@ -89,6 +89,71 @@ class StatisticTest {
         assertEquals(20, stat.getAveragePoints());
     }
 
+    @Test
+    void mergeTest() {
+        stat.addWin(20);
+        stat.addLoss(10);
+        Statistic other = new Statistic();
+        other.addEquality(30);
+        other.addLoss(20);
+        assertEquals(stat, stat.merge(other));
+        assertEquals(4, stat.numberOfTest());
+        assertEquals(1, stat.getWin());
+        assertEquals(1, stat.getEquality());
+        assertEquals(2, stat.getLosses());
+        assertEquals(25.0, stat.getWinPercentage());
+        assertEquals(50.0, stat.getLossPercentage());
+        assertEquals(20, stat.getAveragePoints());
+        stat.merge(new Statistic());
+        assertEquals(4, stat.numberOfTest());
+    }
+
+    @Test
+    void standardDeviationTest() {
+        assertEquals(0, stat.getPointsStandardDeviation());
+        for (int points : new int[]{2, 4, 4, 4, 5, 5, 7, 9}) stat.addLoss(points);
+        assertEquals(5, stat.getMeanPoints(), 1e-12);
+        assertEquals(Math.sqrt(32.0 / 7), stat.getPointsStandardDeviation(), 1e-12);
+        assertEquals(1.959964 * Math.sqrt(32.0 / 7) / Math.sqrt(8), stat.getPointsConfidenceInterval(), 1e-12);
+    }
+
+    @Test
+    void winRateConfidenceTest() {
+        for (int i = 0; i < 50; i++) {
+            stat.addWin(10);
+            stat.addLoss(5);
+        }
+        assertEquals(0.5, stat.getWinRate());
+        assertEquals(Math.sqrt(0.25 * 100 / 99), stat.getWinRateStandardDeviation(), 1e-12);
+        assertEquals(1.959964 * Math.sqrt(0.25 * 100 / 99) / 10, stat.getWinRateConfidenceInterval(), 1e-12);
+        assertEquals(0, new Statistic().getWinRateConfidenceInterval());
+    }
+
+    @Test
+    void mergeShardsTest() {
+        Statistic whole = new Statistic();
+        Statistic merged = new Statistic();
+        for (int shard = 0; shard < 10; shard++) {
+            Statistic part = new Statistic();
+            for (int game = 0; game < 1000 + shard * 37; game++) {
+                int points = 10 + (game * 7919 + shard * 104729) % 30;
+                if (points > 30) {
+                    part.addWin(points);
+                    whole.addWin(points);
+                } else {
+                    part.addLoss(points);
+                    whole.addLoss(points);
+                }
+            }
+            merged.merge(part);
+        }
+        assertEquals(whole.numberOfTest(), merged.numberOfTest());
+        assertEquals(whole.getWin(), merged.getWin());
+        assertEquals(whole.getMeanPoints(), merged.getMeanPoints(), 1e-9);
+        assertEquals(whole.getPointsStandardDeviation(), merged.getPointsStandardDeviation(), 1e-9);
+        assertEquals(whole.getWinRateConfidenceInterval(), merged.getWinRateConfidenceInterval(), 1e-12);
+    }
+
     @Test
     void toStringTest() {
         stat.addWin(20);
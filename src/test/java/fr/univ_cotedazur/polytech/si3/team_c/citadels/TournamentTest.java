@@ -0,0 +1,126 @@
+package fr.univ_cotedazur.polytech.si3.team_c.citadels;
+
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.players.Bot;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.players.RandomBot;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.players.RichardBot;
+import org.junit.jupiter.api.Test;
+
+import javax.naming.LimitExceededException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TournamentTest {
+    @Test
+    void everyGameHasFreshPlayers() throws LimitExceededException {
+        AtomicInteger createdBots = new AtomicInteger();
+        Tournament tournament = new Tournament(100, 4,
+                () -> {
+                    createdBots.incrementAndGet();
+                    return new Bot("Bot");
+                },
+                () -> new RichardBot("Richard Bot"), () -> new Bot("Bot 2"), () -> new Bot("Bot 3"))
+                .withParallelism(4);
+        List<Statistic> statistics = tournament.play();
+
+        assertEquals(100, createdBots.get());
+        assertEquals(4, statistics.size());
+        for (Statistic statistic : statistics) {
+            assertEquals(100, statistic.numberOfTest());
+            assertEquals(100, statistic.getWin() + statistic.getEquality() + statistic.getLosses());
+        }
+    }
+
+    @Test
+    void sameSeedSameResultsWhateverTheParallelism() throws LimitExceededException {
+        List<String> sequential = describe(new Tournament(64, 6, () -> new Bot("Bot"), () -> new RandomBot("Random Bot"), () -> new RichardBot("Richard Bot"))
+                .withSeed(42).withParallelism(1).play());
+        List<String> parallel = describe(new Tournament(64, 6, () -> new Bot("Bot"), () -> new RandomBot("Random Bot"), () -> new RichardBot("Richard Bot"))
+                .withSeed(42).withParallelism(4).play());
+        assertEquals(sequential, parallel);
+    }
+
+    @Test
+    void sameResultsOnAnExecutor() throws LimitExceededException {
+        List<String> pool = describe(new Tournament(70, 5, () -> new Bot("Bot"), () -> new RandomBot("Random Bot"), () -> new RichardBot("Richard Bot"))
+                .withSeed(7).withParallelism(2).play());
+        try (GameExecutor executor = GameExecutor.create(8)) {
+            List<String> tasks = describe(new Tournament(70, 5, () -> new Bot("Bot"), () -> new RandomBot("Random Bot"), () -> new RichardBot("Richard Bot"))
+                    .withSeed(7).withExecutor(executor).play());
+            assertEquals(pool, tasks);
+        }
+    }
+
+    private static List<String> describe(List<Statistic> statistics) {
+        return statistics.stream().map(statistic -> statistic.getName() + " " + statistic.numberOfTest() + " " + statistic.getWin()
+                + " " + statistic.getEquality() + " " + statistic.getLosses() + " " + Float.floatToIntBits(statistic.getAveragePoints())).toList();
+    }
+
+    @Test
+    void liveSnapshots() throws LimitExceededException {
+        List<Long> playedGames = new CopyOnWriteArrayList<>();
+        Tournament[] tournament = new Tournament[1];
+        tournament[0] = new Tournament(100, 4, () -> {
+            // Read while the other threads are playing
+            long played = tournament[0].snapshot().stream().mapToLong(Statistic::numberOfTest).sum() / 4;
+            assertTrue(played <= tournament[0].getNumberOfPlayedGames());
+            playedGames.add(played);
+            return new Bot("Bot");
+        }).withParallelism(4);
+        assertTrue(tournament[0].snapshot().isEmpty());
+        List<Statistic> statistics = tournament[0].play();
+
+        assertEquals(100, playedGames.size());
+        assertTrue(playedGames.stream().anyMatch(played -> played > 0));
+        assertEquals(describe(statistics), describe(tournament[0].snapshot()));
+        assertEquals(100, tournament[0].getNumberOfPlayedGames());
+    }
+
+    @Test
+    void aBrokenBotFailsTheTournament() {
+        try (GameExecutor executor = GameExecutor.platform(4)) {
+            Tournament tournament = new Tournament(20, 4, () -> new Bot("Bot"),
+                    () -> new GameExecutorTest.BrokenBot("Broken Bot")).withExecutor(executor);
+            InternalError error = assertTimeoutPreemptively(Duration.ofMinutes(1),
+                    () -> assertThrows(InternalError.class, tournament::play));
+            assertEquals("Broken bot", error.getMessage());
+        }
+    }
+
+    @Test
+    void playedGamesOfAShortLastChunk() throws Exception {
+        CountDownLatch firstChunk = new CountDownLatch(1);
+        try (GameExecutor executor = GameExecutor.platform(20)) {
+            Tournament tournament = new CapturingTournament(20, 4, () -> new Bot("Bot")).onCreated((index, game) -> {
+                // The first chunk (16 games) waits until the last one (4 games) has been published
+                if (index < 16) {
+                    try {
+                        firstChunk.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }).withExecutor(executor);
+            CompletableFuture<List<Statistic>> statistics = executor.submit(tournament::play);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            while (tournament.getNumberOfPlayedGames() == 0 && System.nanoTime() < deadline) Thread.sleep(1);
+            assertEquals(4, tournament.getNumberOfPlayedGames());
+            firstChunk.countDown();
+            statistics.get();
+            assertEquals(20, tournament.getNumberOfPlayedGames());
+        }
+    }
+
+    @Test
+    void gamesAreCompletedWithRandomBots() throws LimitExceededException {
+        List<Statistic> statistics = new Tournament(20, 5, () -> new Bot("Bot")).withParallelism(2).play();
+        assertEquals(20, statistics.stream().filter(statistic -> statistic.getName().equals("Bot")).findFirst().orElseThrow().numberOfTest());
+        assertEquals(20 * 5, statistics.stream().mapToLong(Statistic::numberOfTest).sum());
+    }
+}
@@ -0,0 +1,126 @@
+package fr.univ_cotedazur.polytech.si3.team_c.citadels;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WriterPipelineTest {
+    @Test
+    void writesInOrder() throws IOException {
+        List<Integer> written = new ArrayList<>();
+        try (WriterPipeline pipeline = new WriterPipeline(8)) {
+            for (int i = 0; i < 1000; i++) {
+                int value = i;
+                pipeline.submit(() -> written.add(value));
+            }
+            pipeline.flush();
+            assertEquals(1000, written.size());
+            for (int i = 1000; i < 1100; i++) {
+                int value = i;
+                pipeline.submit(() -> written.add(value));
+            }
+        }
+        // Closing runs the remaining writes
+        for (int i = 0; i < 1100; i++) assertEquals(i, written.get(i));
+    }
+
+    @Test
+    void backpressure() throws IOException, InterruptedException {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch disk = new CountDownLatch(1);
+        AtomicBoolean submitted = new AtomicBoolean();
+        try (WriterPipeline pipeline = new WriterPipeline(1)) {
+            try {
+                pipeline.submit(() -> { // The writer waits for the disk
+                    writing.countDown();
+                    try {
+                        disk.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+                assertTrue(writing.await(10, TimeUnit.SECONDS));
+                pipeline.submit(() -> {
+                }); // Fills the queue
+                Thread game = new Thread(() -> {
+                    pipeline.submit(() -> {
+                    });
+                    submitted.set(true);
+                });
+                game.start();
+                game.join(200);
+                assertFalse(submitted.get());
+                disk.countDown();
+                game.join(TimeUnit.SECONDS.toMillis(10));
+                assertTrue(submitted.get());
+            } finally {
+                disk.countDown();
+            }
+        }
+    }
+
+    @Test
+    void failures() throws IOException {
+        WriterPipeline pipeline = new WriterPipeline();
+        pipeline.submit(() -> {
+            throw new IOException("Disk full");
+        });
+        IOException failure = assertThrows(IOException.class, pipeline::flush);
+        assertEquals("Disk full", failure.getMessage());
+        assertThrows(UncheckedIOException.class, () -> pipeline.submit(() -> {
+        }));
+        assertThrows(IOException.class, pipeline::close);
+    }
+
+    @Test
+    void errorStopsTheWriter() throws InterruptedException {
+        CountDownLatch disk = new CountDownLatch(1);
+        AtomicReference<Throwable> blockedSubmit = new AtomicReference<>();
+        WriterPipeline pipeline = new WriterPipeline(1);
+        pipeline.submit(() -> {
+            try {
+                disk.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new AssertionError("Corrupted buffer");
+        });
+        pipeline.submit(() -> {
+        }); // Fills the queue
+        Thread game = new Thread(() -> {
+            try {
+                pipeline.submit(() -> {
+                });
+            } catch (RuntimeException e) {
+                blockedSubmit.set(e);
+            }
+        });
+        game.start();
+        disk.countDown();
+        // The thread waiting for some room in the queue is released once the writer is dead
+        game.join(TimeUnit.SECONDS.toMillis(10));
+        assertFalse(game.isAlive());
+        assertInstanceOf(UncheckedIOException.class, blockedSubmit.get());
+        IOException failure = assertThrows(IOException.class, pipeline::flush);
+        assertInstanceOf(AssertionError.class, failure.getCause());
+        assertThrows(IOException.class, pipeline::close);
+    }
+
+    @Test
+    void submitAfterClose() throws IOException {
+        WriterPipeline pipeline = new WriterPipeline();
+        pipeline.close();
+        pipeline.close();
+        assertThrows(IllegalStateException.class, () -> pipeline.submit(() -> {
+        }));
+    }
+}
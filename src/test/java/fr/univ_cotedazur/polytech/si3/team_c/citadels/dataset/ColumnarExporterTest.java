@@ -0,0 +1,71 @@
+package fr.univ_cotedazur.polytech.si3.team_c.citadels.dataset;
+
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.CapturingTournament;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.Game;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.Statistic;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.players.Bot;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.players.Player;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.players.RandomBot;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.players.RichardBot;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.naming.LimitExceededException;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColumnarExporterTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void exportResults() throws IOException, LimitExceededException {
+        CapturingTournament tournament = new CapturingTournament(50, 4, () -> new Bot("Bot"), () -> new RandomBot("Random Bot"), () -> new RichardBot("Richard Bot"));
+        Map<Integer, Game> games = tournament.getGames();
+        List<Statistic> statistics;
+        try (ColumnarExporter exporter = new ColumnarExporter(directory)) {
+            statistics = tournament.withSeed(8).withParallelism(2).withExporter(exporter).play();
+            assertEquals(200, exporter.numberOfRows());
+        }
+
+        ColumnarDataset dataset = new ColumnarDataset(directory);
+        assertEquals(200, dataset.numberOfRows());
+        List<String> players = dataset.players();
+        int[] gameIndices = dataset.intColumn(ResultColumn.GAME);
+        long[] seats = dataset.column(ResultColumn.SEAT);
+        int[] names = dataset.intColumn(ResultColumn.PLAYER);
+        int[] scores = dataset.intColumn(ResultColumn.SCORE);
+        long[] results = dataset.column(ResultColumn.RESULT);
+        long[] seeds = dataset.column(ResultColumn.SEED);
+        int[] turns = dataset.intColumn(ResultColumn.TURNS);
+        int[] characters = dataset.intColumn(ResultColumn.CHARACTERS);
+        long[] districts = dataset.column(ResultColumn.DISTRICTS);
+        for (int row = 0; row < 200; row++) {
+            Game game = games.get(gameIndices[row]);
+            Player player = game.getPlayerList().get((int) seats[row]);
+            assertEquals(player.getName(), players.get(names[row]));
+            assertEquals(game.getSeed(), seeds[row]);
+            assertEquals(game.getCurrentTurn(), turns[row]);
+            assertEquals(player.getScore(game.getCurrentTurn()), scores[row]);
+            assertEquals(player.getNumberOfBuiltDistricts(), Long.bitCount(districts[row]));
+            assertTrue(Integer.bitCount(characters[row]) >= 1 && Integer.bitCount(characters[row]) <= turns[row]);
+            assertEquals(1L << player.getCharacter().orElseThrow().getTurn(), characters[row] & 1L << player.getCharacter().orElseThrow().getTurn());
+        }
+        for (Statistic statistic : statistics) {
+            int name = players.indexOf(statistic.getName());
+            long wins = 0;
+            long points = 0;
+            for (int row = 0; row < 200; row++) {
+                if (names[row] != name) continue;
+                if (results[row] == ResultColumn.WIN) wins++;
+                points += scores[row];
+            }
+            assertEquals(statistic.getWin(), wins);
+            assertEquals(statistic.getMeanPoints() * statistic.numberOfTest(), points, 1e-6);
+        }
+    }
+}
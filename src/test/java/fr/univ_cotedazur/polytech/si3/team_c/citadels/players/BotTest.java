@@ -284,6 +284,21 @@ class BotTest {
         assertEquals(31, player1.getScore(8));
     }
 
+    @Test
+    void allColorsInDistricts() {
+        bot1 = new Bot("Bot 1", 100, List.of(new Temple(), new Manor(), new Docks(), new Library(), new HauntedCity(), new Prison()));
+        for (District district : bot1.getHandDistricts().subList(0, 4)) bot1.buildDistrict(district, 1);
+        assertFalse(bot1.allColorsInDistricts(2));
+        bot1.buildDistrict(new HauntedCity(), 2);
+        assertFalse(bot1.allColorsInDistricts(2)); // The Haunted City only counts as purple when built in the last turn
+        assertTrue(bot1.allColorsInDistricts(3)); // Otherwise it replaces the missing red district
+        bot1.buildDistrict(new Prison(), 3);
+        assertTrue(bot1.allColorsInDistricts(2));
+        bot1.removeDistrictFromDistrictBuilt(new Docks());
+        assertFalse(bot1.allColorsInDistricts(2));
+        assertTrue(bot1.allColorsInDistricts(3));
+    }
+
     @Test
     void numberOfDistrictsToDraw() {
         Observatory observatory = new Observatory();
@@ -588,6 +603,62 @@ class BotTest {
         assertEquals(0, bot1.getBuiltDistricts().size());
     }
 
+    @Test
+    void builtDistrictsStorage() {
+        bot1 = new Bot("Bot 1", 100, List.of(new Battlefield(), new Castle(), new Church(), new SchoolOfMagic()));
+        assertTrue(bot1.buildDistrict(new Castle(), 3));
+        assertTrue(bot1.buildDistrict(new Battlefield(), 1));
+        assertTrue(bot1.buildDistrict(new SchoolOfMagic(), 3));
+        assertEquals(List.of(new Battlefield(), new Castle(), new SchoolOfMagic()), bot1.getBuiltDistricts()); // Ordered by turn of build
+        assertSame(bot1.getBuiltDistricts(), bot1.getBuiltDistricts());
+        assertEquals(3, bot1.getNumberOfBuiltDistricts());
+        assertTrue(bot1.hasBuiltDistrict(new Castle()));
+        assertFalse(bot1.hasBuiltDistrict(new Church()));
+        assertEquals(2, bot1.quantityOfColorBuilt(Colors.YELLOW));
+        assertEquals(2, bot1.quantityOfColorBuilt(Colors.RED));
+        assertEquals(1, bot1.getNumberOfBuiltDistricts(Colors.RED));
+        assertEquals(1, bot1.getNumberOfBuiltDistricts(Colors.PURPLE));
+        assertEquals(13, bot1.getDistrictsScore());
+
+        bot1.removeDistrictFromDistrictBuilt(new Castle());
+        assertEquals(List.of(new Battlefield(), new SchoolOfMagic()), bot1.getBuiltDistricts());
+        assertFalse(bot1.hasBuiltDistrict(new Castle()));
+        assertEquals(1, bot1.quantityOfColorBuilt(Colors.YELLOW));
+        assertEquals(9, bot1.getDistrictsScore());
+        assertEquals(0, bot1.getNumberOfDestroyableDistricts()); // No character, nothing can be destroyed
+        bot1.setCharacter(new King());
+        assertEquals(2, bot1.getNumberOfDestroyableDistricts());
+        assertThrows(UnsupportedOperationException.class, () -> bot1.getBuiltDistricts().add(new Castle()));
+
+        bot1.resetPlayer();
+        assertEquals(0, bot1.getNumberOfBuiltDistricts());
+        assertEquals(0, bot1.quantityOfColorBuilt(Colors.RED));
+        assertEquals(0, bot1.getDistrictsScore());
+    }
+
+    @Test
+    void builtDistrictsOutOfTheCatalog() {
+        District statue = new District("Statue", 3, Colors.YELLOW, 5) {
+        };
+        District fountain = new District("Fountain", 2, Colors.GREEN, 2) {
+        };
+        bot1 = new Bot("Bot 1", 100, List.of(statue, new Castle(), fountain));
+        assertTrue(bot1.buildDistrict(statue, 1));
+        assertTrue(bot1.buildDistrict(new Castle(), 1));
+        assertTrue(bot1.buildDistrict(fountain, 2));
+        assertEquals(List.of(statue, new Castle(), fountain), bot1.getBuiltDistricts());
+        assertTrue(bot1.hasBuiltDistrict(statue));
+        assertEquals(2, bot1.getNumberOfBuiltDistricts(Colors.YELLOW));
+        assertEquals(11, bot1.getDistrictsScore());
+        assertEquals(1L << DistrictCatalog.numberOfTypes() | 1L << DistrictCatalog.typeId(new Castle())
+                | 1L << DistrictCatalog.numberOfTypes() + 1, bot1.getBuiltDistrictTypes());
+
+        bot1.removeDistrictFromDistrictBuilt(statue);
+        assertFalse(bot1.hasBuiltDistrict(statue));
+        assertEquals(List.of(new Castle(), fountain), bot1.getBuiltDistricts());
+        assertEquals(6, bot1.getDistrictsScore());
+    }
+
     @Test
     void destroyDistrictTest2() {
         Bot warlordBot = new Bot("warlordBot", 1, Collections.emptyList()) {
@@ -0,0 +1,81 @@
+package fr.univ_cotedazur.polytech.si3.team_c.citadels.profiling;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BenchmarkBaselineTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void measure() {
+        Measure measure = Measure.of(10, 12, Double.NaN, 14);
+        assertEquals(3, measure.runs());
+        assertEquals(12, measure.mean(), 1e-9);
+        assertEquals(2, measure.standardDeviation(), 1e-9);
+        assertEquals(0, Measure.of().runs());
+        assertEquals(0, Measure.of(5).standardDeviation());
+    }
+
+    @Test
+    void noiseAwareDifferences() {
+        Measure baseline = Measure.of(100, 102, 98, 101, 99);
+        // Within the noise of the runs
+        assertFalse(Measure.of(101, 103, 99, 102, 100).differsFrom(baseline, 0));
+        // Larger than the noise, but not than the minimum change
+        assertTrue(Measure.of(110, 111, 109, 110, 110).differsFrom(baseline, 0.05));
+        assertFalse(Measure.of(104, 105, 103, 104, 104).differsFrom(baseline, 0.05));
+        // Large but very noisy
+        assertFalse(Measure.of(60, 200, 90, 180, 70).differsFrom(baseline, 0.05));
+        assertEquals(0.1, Measure.of(110).changeFrom(Measure.of(100)), 1e-9);
+    }
+
+    @Test
+    void saveLoadAndCompare() throws IOException {
+        Map<String, Measure> baseline = new LinkedHashMap<>();
+        baseline.put("Bot.4.games-per-second", Measure.of(100, 101, 99));
+        baseline.put("Bot.4.bytes-per-game", Measure.of(1000, 1000, 1000));
+        baseline.put("Bot.4.ns-per-KILL", Measure.of(500, 510, 490));
+        baseline.put("Bot.5.games-per-second", Measure.of(80, 80, 80));
+        Path file = directory.resolve("benchmark").resolve("baseline.txt");
+        BenchmarkBaseline.save(file, baseline, "A machine\nA run");
+        assertTrue(Files.readString(file).startsWith("# A machine\n# A run\nBot.4.games-per-second="));
+        assertEquals(baseline, BenchmarkBaseline.load(file));
+
+        Map<String, Measure> measures = new LinkedHashMap<>();
+        measures.put("Bot.4.games-per-second", Measure.of(150, 151, 149)); // Faster
+        measures.put("Bot.4.bytes-per-game", Measure.of(1200, 1200, 1200)); // More allocations
+        measures.put("Bot.4.ns-per-KILL", Measure.of(520, 500, 510)); // Unchanged
+        measures.put("Bot.4.ns-per-ROB", Measure.of(300, 300, 300)); // New
+        String report = BenchmarkBaseline.compare(BenchmarkBaseline.load(file), measures);
+        assertTrue(report.contains("\tBot.4.games-per-second: 100.0 -> 150.0 (+50.0%, better)"), report);
+        assertTrue(report.contains("\tBot.4.bytes-per-game: 1000.0 -> 1200.0 (+20.0%, worse)"), report);
+        assertFalse(report.contains("ns-per-KILL"), report);
+        assertTrue(report.contains("Overall speed (geometric mean of the cases): +50.0%"), report);
+        assertTrue(report.endsWith("1 better, 1 worse, 1 unchanged, 1 new, 1 missing"), report);
+    }
+
+    @Test
+    void invalidBaseline() throws IOException {
+        Path file = Files.writeString(directory.resolve("baseline.txt"), "Bot.4.games-per-second=100\n");
+        assertThrows(IOException.class, () -> BenchmarkBaseline.load(file));
+    }
+
+    @Test
+    void benchmarkCase() {
+        Map<String, Measure> measures = new BenchmarkSuite(2, 2).run("Mixed", 4);
+        Measure speed = measures.get(BenchmarkSuite.key("Mixed", 4, BenchmarkSuite.GAMES_PER_SECOND));
+        assertEquals(2, speed.runs());
+        assertTrue(speed.mean() > 0);
+        assertTrue(measures.keySet().stream().allMatch(key -> key.startsWith("Mixed.4.")));
+        assertThrows(IllegalArgumentException.class, () -> new BenchmarkSuite(2, 2).run("Nobody", 4));
+    }
+}
@@ -0,0 +1,44 @@
+package fr.univ_cotedazur.polytech.si3.team_c.citadels.profiling;
+
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.CapturingTournament;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.Game;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.events.Decision;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.players.Bot;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.players.RichardBot;
+import org.junit.jupiter.api.Test;
+
+import javax.naming.LimitExceededException;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DecisionProfilerTest {
+    @Test
+    void profileTournament() throws LimitExceededException {
+        DecisionProfiler profiler = new DecisionProfiler();
+        CapturingTournament tournament = new CapturingTournament(20, 3, () -> new Bot("Bot 1"), () -> new Bot("Bot 2"), () -> new RichardBot("Richard Bot"));
+        tournament.withSeed(7).withParallelism(2).withProfiler(profiler).play();
+        Map<Integer, Game> games = tournament.getGames();
+
+        // Each bot picks a character at each turn of each game
+        long turns = games.values().stream().mapToLong(Game::getCurrentTurn).sum();
+        assertEquals(2 * turns, profiler.getHistogram("Bot", Decision.CHARACTER).getCount());
+        assertEquals(turns, profiler.getHistogram("RichardBot", Decision.CHARACTER).getCount());
+        // and keeps two districts at the beginning of each game, and whenever it draws
+        assertTrue(profiler.getHistogram("Bot", Decision.KEEP_DISTRICTS).getCount() >= 2 * 20);
+        for (String bot : List.of("Bot", "RichardBot")) {
+            LatencyHistogram actions = profiler.getHistogram(bot, Decision.ACTION);
+            assertTrue(actions.getCount() > 0);
+            assertTrue(actions.percentile(0.5) <= actions.percentile(0.99));
+            assertTrue(actions.percentile(0.99) <= actions.getMax());
+            assertTrue(profiler.getCpuTime(bot) > 0);
+        }
+        assertEquals(0, profiler.getHistogram("RandomBot", Decision.ACTION).getCount());
+
+        String report = profiler.report();
+        assertTrue(report.startsWith("Bot decisions (CPU time: "), report);
+        assertTrue(report.contains("RichardBot decisions"), report);
+        assertTrue(report.contains("\tCHARACTER: " + turns + " decision(s), p50 "), report);
+    }
+}
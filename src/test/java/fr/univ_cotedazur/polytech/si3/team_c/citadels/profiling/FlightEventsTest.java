@@ -0,0 +1,79 @@
+package fr.univ_cotedazur.polytech.si3.team_c.citadels.profiling;
+
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.Game;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.players.Bot;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.players.RichardBot;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.naming.LimitExceededException;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlightEventsTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void recordGame() throws IOException, LimitExceededException {
+        Game game = new Game(11, 4, new Bot("Bot"), new RichardBot("Richard Bot"));
+        assertEvents(game, record(game::start));
+    }
+
+    @Test
+    void recordSteppedGame() throws IOException, LimitExceededException {
+        Game game = new Game(11, 4, new Bot("Bot"), new RichardBot("Richard Bot"));
+        assertEvents(game, record(() -> {
+            while (game.step()) {
+                // Each step is a setup, a pick, the start of a player's turn, an action or the end of a round
+            }
+        }));
+    }
+
+    private interface Play {
+        void play() throws LimitExceededException;
+    }
+
+    private List<RecordedEvent> record(Play play) throws IOException, LimitExceededException {
+        Path file = directory.resolve("game.jfr");
+        try (Recording recording = new Recording()) {
+            for (String event : List.of("citadels.Game", "citadels.Turn", "citadels.CharacterSelection", "citadels.PlayerTurn", "citadels.Action"))
+                recording.enable(event).withoutThreshold();
+            recording.start();
+            play.play();
+            recording.stop();
+            recording.dump(file);
+        }
+        return RecordingFile.readAllEvents(file);
+    }
+
+    private static void assertEvents(Game game, List<RecordedEvent> events) {
+        List<RecordedEvent> games = ofType(events, "citadels.Game");
+        assertEquals(1, games.size());
+        assertEquals(11, games.get(0).getLong("game"));
+        assertEquals(4, games.get(0).getInt("players"));
+        assertEquals(game.getCurrentTurn(), games.get(0).getInt("turns"));
+        assertEquals(game.getCurrentTurn(), ofType(events, "citadels.Turn").size());
+        assertEquals(game.getCurrentTurn(), ofType(events, "citadels.CharacterSelection").size());
+
+        // Each player plays a turn at each turn of the game
+        List<RecordedEvent> playerTurns = ofType(events, "citadels.PlayerTurn");
+        assertEquals(4L * game.getCurrentTurn(), playerTurns.size());
+        assertTrue(playerTurns.stream().allMatch(event -> event.getLong("game") == 11 && event.getString("character") != null));
+        assertEquals(4, playerTurns.stream().map(event -> event.getString("player")).distinct().count());
+
+        List<RecordedEvent> actions = ofType(events, "citadels.Action");
+        assertTrue(actions.stream().anyMatch(event -> event.getString("action").equals("BUILD")));
+        assertTrue(actions.stream().allMatch(event -> event.getInt("turn") >= 1 && event.getInt("turn") <= game.getCurrentTurn()));
+    }
+
+    private static List<RecordedEvent> ofType(List<RecordedEvent> events, String type) {
+        return events.stream().filter(event -> event.getEventType().getName().equals(type)).toList();
+    }
+}
@@ -0,0 +1,43 @@
+package fr.univ_cotedazur.polytech.si3.team_c.citadels.profiling;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+    @Test
+    void empty() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.percentile(0.5));
+        assertEquals(0, histogram.getMax());
+    }
+
+    @Test
+    void percentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 98; i++) histogram.record(1000);
+        histogram.record(100_000);
+        histogram.record(5_000_000);
+        assertEquals(100, histogram.getCount());
+        assertEquals(5_000_000, histogram.getMax());
+        // 1000 ns is in the bucket [512, 1023]
+        assertEquals(1023, histogram.percentile(0.5));
+        assertEquals(131_071, histogram.percentile(0.99));
+        assertEquals(5_000_000, histogram.percentile(1));
+        assertThrows(IllegalArgumentException.class, () -> histogram.percentile(2));
+    }
+
+    @Test
+    void percentileWithinAFactorOfTwo() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int duration = 1; duration <= 10_000; duration++) histogram.record(duration);
+        for (double quantile : new double[]{0.1, 0.5, 0.9, 0.99}) {
+            long exact = Math.round(quantile * 10_000);
+            long percentile = histogram.percentile(quantile);
+            assertTrue(percentile >= exact && percentile < 2 * exact, quantile + " : " + percentile);
+        }
+        histogram.record(-5); // A clock going backwards counts as 0
+        assertEquals(0, histogram.percentile(0));
+    }
+}
@@ -0,0 +1,66 @@
+package fr.univ_cotedazur.polytech.si3.team_c.citadels.replay;
+
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.events.Decision;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.players.Player;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.players.RandomBot;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.replay.ReplayRecord.RecordedDecision;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GoldenGamesTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void gamesMatchTheGoldenSet() throws IOException {
+        // The first games of each case are enough for the tests, the whole set being checked by --golden
+        assertEquals(List.of(), new GoldenGames(40).check(GoldenGames.GOLDEN_PATH));
+    }
+
+    @Test
+    void reportFirstDivergingDecision() throws IOException {
+        Path golden = directory.resolve("golden.ctdr.gz");
+        new GoldenGames(3).save(golden);
+        assertEquals(List.of(), new GoldenGames(3).check(golden));
+
+        List<String> divergences = new GoldenGames(3) {
+            @Override
+            protected Player createPlayer(String bot, String name) {
+                return bot.equals("Bot") ? new RandomBot(name) : super.createPlayer(bot, name);
+            }
+        }.check(golden);
+        assertFalse(divergences.isEmpty());
+        assertTrue(divergences.get(0).matches("Game \\d of 3 players \\(seed -?\\d+\\) diverges: decision \\d+ is .+ instead of .+"), divergences.get(0));
+
+        List<String> missing = new GoldenGames(4).check(golden);
+        assertEquals(6, missing.size());
+        assertTrue(missing.get(0).startsWith("Game 3 of 3 players"));
+        assertTrue(missing.get(0).endsWith("isn't in the golden set"));
+    }
+
+    @Test
+    void fingerprint() {
+        ReplayRecord game = new ReplayRecord(0, 42, 3, List.of("A", "B", "C"), 5, false, new int[]{12, 20, 7},
+                List.of(new RecordedDecision(Decision.CHARACTER, new int[]{4}), new RecordedDecision(Decision.ACTION, new int[]{1})));
+        assertEquals(GoldenGames.fingerprint(game), GoldenGames.fingerprint(new ReplayRecord(7, 42, 3, List.of("A", "B", "C"), 5, false,
+                new int[]{12, 20, 7}, List.of(new RecordedDecision(Decision.CHARACTER, new int[]{4}), new RecordedDecision(Decision.ACTION, new int[]{1})))));
+
+        ReplayRecord otherScores = new ReplayRecord(0, 42, 3, List.of("A", "B", "C"), 5, false, new int[]{12, 7, 20}, game.decisions());
+        assertNotEquals(GoldenGames.fingerprint(game), GoldenGames.fingerprint(otherScores));
+        assertEquals("the scores are [12, 7, 20] instead of [12, 20, 7]", GoldenGames.firstDivergence(game, otherScores));
+
+        ReplayRecord otherDecision = new ReplayRecord(0, 42, 3, List.of("A", "B", "C"), 5, false, new int[]{12, 20, 7},
+                List.of(new RecordedDecision(Decision.CHARACTER, new int[]{4}), new RecordedDecision(Decision.ACTION, new int[]{0})));
+        assertNotEquals(GoldenGames.fingerprint(game), GoldenGames.fingerprint(otherDecision));
+        assertEquals("decision 1 is ACTION [0] instead of ACTION [1]", GoldenGames.firstDivergence(game, otherDecision));
+
+        ReplayRecord fewerDecisions = new ReplayRecord(0, 42, 3, List.of("A", "B", "C"), 5, false, new int[]{12, 20, 7}, game.decisions().subList(0, 1));
+        assertEquals("decision 1 is missing instead of ACTION [1]", GoldenGames.firstDivergence(game, fewerDecisions));
+    }
+}
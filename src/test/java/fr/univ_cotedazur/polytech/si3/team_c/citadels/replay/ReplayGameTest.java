@@ -0,0 +1,110 @@
+package fr.univ_cotedazur.polytech.si3.team_c.citadels.replay;
+
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.CapturingTournament;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.Game;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.events.GameEvent;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.players.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.naming.LimitExceededException;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplayGameTest {
+    private static final int NUMBER_OF_GAMES = 30;
+    @TempDir
+    Path directory;
+    private List<ReplayRecord> records;
+    /**
+     * The state of each player of each recorded game at the end of each turn
+     */
+    private final Map<Integer, List<List<String>>> states = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void recordGames() throws IOException, LimitExceededException {
+        Path file = directory.resolve("games.ctdr");
+        try (ReplayRecorder recorder = new ReplayRecorder(file)) {
+            new CapturingTournament(NUMBER_OF_GAMES, 6, () -> new Bot("Bot"), () -> new DiscreetBot("Discrete Bot"), () -> new FearFulBot("Fearful Bot"),
+                    () -> new AgressiveBot("Aggressive Bot"), () -> new RandomBot("Random Bot"), () -> new RichardBot("Richard Bot"))
+                    .onCreated((index, game) -> {
+                        List<List<String>> gameStates = new ArrayList<>();
+                        states.put(index, gameStates);
+                        game.getEvents().subscribe(event -> {
+                            if (event instanceof GameEvent.TurnStarted turnStarted) gameStates.add(state(game, turnStarted.turn() - 1));
+                            else if (event instanceof GameEvent.GameEnded) gameStates.add(state(game, game.getCurrentTurn()));
+                        });
+                    }).withSeed(11).withParallelism(2).withRecorder(recorder).play();
+        }
+        try (ReplayReader reader = new ReplayReader(file)) {
+            records = reader.readAll();
+        }
+    }
+
+    private static List<String> state(Game game, int lastTurn) {
+        return game.getPlayerList().stream().map(player -> player.getName() + " " + player.getCoins() + " " + player.getHandDistricts()
+                + " " + player.getBuiltDistricts() + " " + player.getScore(lastTurn)).toList();
+    }
+
+    @Test
+    void replayRecordedGames() {
+        assertEquals(NUMBER_OF_GAMES, records.size());
+        for (ReplayRecord replayRecord : records) {
+            Game game = new ReplayGame(replayRecord).replay();
+            assertEquals(replayRecord.turns(), game.getCurrentTurn());
+            List<List<String>> gameStates = states.get(replayRecord.gameIndex());
+            assertEquals(gameStates.get(gameStates.size() - 1), state(game, game.getCurrentTurn()));
+        }
+    }
+
+    @Test
+    void stateAtAnyTurn() {
+        for (ReplayRecord replayRecord : records) {
+            List<List<String>> gameStates = states.get(replayRecord.gameIndex());
+            ReplayGame replay = new ReplayGame(replayRecord);
+            // The first state is taken when the first turn starts, so after the preparation of the game
+            for (int turn = 0; turn < replayRecord.turns(); turn++)
+                assertEquals(gameStates.get(turn), state(replay.replayUntil(turn), turn), "Turn " + turn);
+        }
+    }
+
+    @Test
+    void replayTheKeptCardAmongCardsOfTheSameType() throws IOException, LimitExceededException {
+        // In this game, a player draws two Temples and keeps the second one, so the other cards go back to the
+        // deck in an order which only the very kept card gives
+        Game game = new Game(-201249224010346457L, 5, new Bot("Bot"), new DiscreetBot("Discrete Bot"), new FearFulBot("Fearful Bot"),
+                new AgressiveBot("Aggressive Bot"), new RandomBot("Random Bot"), new RichardBot("Richard Bot"));
+        Path file = directory.resolve("game.ctdr");
+        try (ReplayRecorder recorder = new ReplayRecorder(file)) {
+            GameRecording recording = recorder.record(game, 0);
+            game.start();
+            recording.finish(game);
+        }
+        ReplayRecord replayRecord;
+        try (ReplayReader reader = new ReplayReader(file)) {
+            replayRecord = reader.next();
+        }
+        assertEquals(state(game, game.getCurrentTurn()), state(new ReplayGame(replayRecord).replay(), game.getCurrentTurn()));
+    }
+
+    @Test
+    void divergence() {
+        ReplayRecord replayRecord = records.get(0);
+        int[] scores = replayRecord.scores().clone();
+        scores[0]++;
+        ReplayRecord wrongScores = new ReplayRecord(replayRecord.gameIndex(), replayRecord.seed(), replayRecord.numberOfPlayers(), replayRecord.players(),
+                replayRecord.turns(), replayRecord.stuck(), scores, replayRecord.decisions());
+        assertThrows(ReplayDivergenceException.class, () -> new ReplayGame(wrongScores).replay());
+
+        ReplayRecord otherSeed = new ReplayRecord(replayRecord.gameIndex(), replayRecord.seed() + 1, replayRecord.numberOfPlayers(), replayRecord.players(),
+                replayRecord.turns(), replayRecord.stuck(), replayRecord.scores(), replayRecord.decisions());
+        assertThrows(ReplayDivergenceException.class, () -> new ReplayGame(otherSeed).replay());
+    }
+}
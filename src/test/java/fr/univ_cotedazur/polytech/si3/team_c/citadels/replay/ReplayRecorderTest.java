@@ -0,0 +1,89 @@
+package fr.univ_cotedazur.polytech.si3.team_c.citadels.replay;
+
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.CapturingTournament;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.Game;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.Tournament;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.WriterPipeline;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.events.Decision;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.players.Bot;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.players.Player;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.players.RandomBot;
+import fr.univ_cotedazur.polytech.si3.team_c.citadels.players.RichardBot;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.naming.LimitExceededException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplayRecorderTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void recordAndReadGames() throws IOException, LimitExceededException {
+        recordAndReadGames(null);
+    }
+
+    @Test
+    void recordThroughPipeline() throws IOException, LimitExceededException {
+        try (WriterPipeline pipeline = new WriterPipeline(4)) {
+            recordAndReadGames(pipeline);
+        }
+    }
+
+    private void recordAndReadGames(WriterPipeline pipeline) throws IOException, LimitExceededException {
+        Path file = directory.resolve("games.ctdr");
+        CapturingTournament tournament = new CapturingTournament(20, 4, () -> new Bot("Bot"), () -> new RandomBot("Random Bot"), () -> new RichardBot("Richard Bot"));
+        try (ReplayRecorder recorder = new ReplayRecorder(file, pipeline)) {
+            tournament.withSeed(3).withParallelism(2).withRecorder(recorder).play();
+        }
+
+        List<ReplayRecord> records;
+        try (ReplayReader reader = new ReplayReader(file)) {
+            records = reader.readAll();
+        }
+        assertEquals(20, records.size());
+        for (ReplayRecord replayRecord : records) {
+            Game game = tournament.getGames().get(replayRecord.gameIndex());
+            assertEquals(tournament.gameSeed(replayRecord.gameIndex()), replayRecord.seed());
+            assertEquals(game.getPlayerList().stream().map(Player::getName).toList(), replayRecord.players());
+            assertEquals(game.getCurrentTurn(), replayRecord.turns());
+            assertFalse(replayRecord.stuck());
+            for (int seat = 0; seat < replayRecord.scores().length; seat++)
+                assertEquals(game.getPlayerList().get(seat).getScore(game.getCurrentTurn()), replayRecord.scores()[seat]);
+            // Each player first keeps the two districts he was dealt, then picks a character at each turn
+            assertTrue(replayRecord.decisions().stream().limit(4).allMatch(decision -> decision.decision() == Decision.KEEP_DISTRICTS && decision.values().length == 2));
+            assertEquals(4L * replayRecord.turns(), replayRecord.decisions().stream().filter(decision -> decision.decision() == Decision.CHARACTER).count());
+        }
+        // A game takes a few hundred bytes
+        assertTrue(Files.size(file) < 20 * 1000, "The replay file takes " + Files.size(file) + " bytes");
+    }
+
+    @Test
+    void readAFileWhichWasNotClosed() throws IOException, LimitExceededException {
+        Path file = directory.resolve("crashed.ctdr");
+        ReplayRecorder recorder = new ReplayRecorder(file);
+        try {
+            new Tournament(5, 4, () -> new Bot("Bot"), () -> new RandomBot("Random Bot"))
+                    .withSeed(3).withParallelism(1).withRecorder(recorder).play();
+            // The file still ends with the padding of its mapped region, as after a crash
+            assertTrue(Files.size(file) > recorder.size());
+            try (ReplayReader reader = new ReplayReader(file)) {
+                assertEquals(5, reader.readAll().size());
+            }
+        } finally {
+            recorder.close();
+        }
+    }
+
+    @Test
+    void notAReplayFile() throws IOException {
+        Path file = Files.writeString(directory.resolve("text.ctdr"), "Not a replay");
+        assertThrows(IOException.class, () -> new ReplayReader(file).close());
+    }
+}